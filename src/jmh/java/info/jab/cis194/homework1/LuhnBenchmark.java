@@ -0,0 +1,82 @@
+package info.jab.cis194.homework1;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Exercise1 Luhn validation: composed reference vs arithmetic vs byte scanning, per card number
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LuhnBenchmark {
+
+    private static final int CARDS = 4096;
+
+    private final Exercise1 exercise = new Exercise1();
+    private long[] cardNumbers;
+    private String[] cardTexts;
+    private byte[] export;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(16);
+        cardNumbers = new long[CARDS];
+        cardTexts = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            cardNumbers[i] = 4_000_000_000_000_000L + random.nextLong(1_000_000_000_000_000L);
+            cardTexts[i] = Long.toString(cardNumbers[i]);
+        }
+        export = String.join("\n", cardTexts).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public void validateComposed(Blackhole blackhole) {
+        for (long cardNumber : cardNumbers) {
+            blackhole.consume(exercise.validateComposed(cardNumber));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public void validate(Blackhole blackhole) {
+        for (long cardNumber : cardNumbers) {
+            blackhole.consume(exercise.validate(cardNumber));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public boolean[] validateAll() {
+        return exercise.validateAll(cardNumbers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public boolean[] validateAllText() {
+        return exercise.validateAll(cardTexts);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARDS)
+    public Exercise1.LuhnReport scan() {
+        return exercise.scan(export);
+    }
+}
@@ -0,0 +1,56 @@
+package info.jab.cis194.homework2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercise3.build (balanced insert fold) vs the bulk builders
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuildBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int lines;
+
+    @Param({"SORTED", "SHUFFLED"})
+    private LogGenerator.Order order;
+
+    private final Exercise3 exercise = new Exercise3();
+    private List<LogMessage> messages;
+
+    @Setup
+    public void setUp() {
+        messages = LogGenerator.messages(lines, order);
+    }
+
+    @Benchmark
+    public MessageTree build() {
+        return exercise.build(messages);
+    }
+
+    @Benchmark
+    public MessageTree buildBulk() {
+        return exercise.buildBulk(messages);
+    }
+
+    @Benchmark
+    public MessageTree buildBulkParallel() {
+        return exercise.buildBulkParallel(messages);
+    }
+}
@@ -0,0 +1,53 @@
+package info.jab.cis194.homework2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercise4 in-order traversal variants over a balanced tree
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InOrderBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int lines;
+
+    private final Exercise4 exercise = new Exercise4();
+    private MessageTree tree;
+
+    @Setup
+    public void setUp() {
+        tree = new Exercise3().buildBulk(LogGenerator.messages(lines, LogGenerator.Order.SHUFFLED));
+    }
+
+    @Benchmark
+    public List<LogMessage.ValidMessage> inOrder() {
+        return exercise.inOrder(tree);
+    }
+
+    @Benchmark
+    public List<LogMessage.ValidMessage> inOrderFunctional() {
+        return exercise.inOrderFunctional(tree);
+    }
+
+    @Benchmark
+    public List<LogMessage.ValidMessage> inOrderStream() {
+        return exercise.inOrderStream(tree);
+    }
+}
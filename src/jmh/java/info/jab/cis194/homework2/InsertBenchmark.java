@@ -0,0 +1,80 @@
+package info.jab.cis194.homework2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercise2 insert variants, folding a whole log into a tree one message at a time.
+ *
+ * The unbalanced variants are O(n^2) with recursion depth n on sorted input,
+ * so sizes stop at 10^4 by default; larger sizes can be forced with -p lines=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InsertBenchmark {
+
+    @Param({"1000", "10000"})
+    private int lines;
+
+    @Param({"SORTED", "SHUFFLED"})
+    private LogGenerator.Order order;
+
+    private final Exercise2 exercise = new Exercise2();
+    private List<LogMessage> messages;
+
+    @Setup
+    public void setUp() {
+        messages = LogGenerator.messages(lines, order);
+    }
+
+    @Benchmark
+    public MessageTree insert() {
+        MessageTree tree = MessageTree.leaf();
+        for (LogMessage message : messages) {
+            tree = exercise.insert(message, tree);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public MessageTree insertWithTrampoline() {
+        MessageTree tree = MessageTree.leaf();
+        for (LogMessage message : messages) {
+            tree = exercise.insertWithTrampoline(message, tree);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public MessageTree insertAlternative() {
+        MessageTree tree = MessageTree.leaf();
+        for (LogMessage message : messages) {
+            tree = exercise.insertAlternative(message, tree);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public MessageTree insertBalanced() {
+        MessageTree tree = MessageTree.leaf();
+        for (LogMessage message : messages) {
+            tree = exercise.insertBalanced(message, tree);
+        }
+        return tree;
+    }
+}
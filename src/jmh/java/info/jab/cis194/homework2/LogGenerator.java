@@ -0,0 +1,72 @@
+package info.jab.cis194.homework2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic log files for the homework2 benchmarks.
+ *
+ * Roughly 60% Info, 15% Warning, 20% Error (severity 1-100) and 5% malformed lines.
+ * Timestamps are a permutation of 0..count-1, either ascending or shuffled.
+ */
+public final class LogGenerator {
+
+    /**
+     * Order in which timestamps appear in the generated log
+     */
+    public enum Order { SORTED, SHUFFLED }
+
+    private static final long SEED = 194L;
+
+    private LogGenerator() {
+    }
+
+    static List<String> lines(int count, Order order) {
+        int[] timestamps = timestamps(count, order);
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(100);
+            if (kind < 60) {
+                lines.add("I " + timestamps[i] + " Completed armadillo processing step " + i);
+            } else if (kind < 75) {
+                lines.add("W " + timestamps[i] + " Flange is due for a check-up " + i);
+            } else if (kind < 95) {
+                lines.add("E " + (random.nextInt(100) + 1) + " " + timestamps[i] + " Bad pickle-flange interaction " + i);
+            } else {
+                lines.add("garbled output from subsystem " + i);
+            }
+        }
+        return lines;
+    }
+
+    static String content(int count, Order order) {
+        return String.join("\n", lines(count, order));
+    }
+
+    static List<LogMessage> messages(int count, Order order) {
+        Exercise1 parser = new Exercise1();
+        return lines(count, order).stream()
+                .map(parser::parseMessage)
+                .toList();
+    }
+
+    private static int[] timestamps(int count, Order order) {
+        int[] timestamps = new int[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = i;
+        }
+        if (order == Order.SHUFFLED) {
+            Random random = new Random(SEED);
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = timestamps[i];
+                timestamps[i] = timestamps[j];
+                timestamps[j] = swap;
+            }
+        }
+        return timestamps;
+    }
+}
@@ -0,0 +1,48 @@
+package info.jab.cis194.homework2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercise1.parse vs parseFunctional over a complete in-memory log
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int lines;
+
+    private final Exercise1 exercise = new Exercise1();
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = LogGenerator.content(lines, LogGenerator.Order.SHUFFLED);
+    }
+
+    @Benchmark
+    public List<LogMessage> parse() {
+        return exercise.parse(content);
+    }
+
+    @Benchmark
+    public List<LogMessage> parseFunctional() {
+        return exercise.parseFunctional(content);
+    }
+}
@@ -0,0 +1,63 @@
+package info.jab.cis194.homework2;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercise5 whatWentWrong variants over a parsed log
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WhatWentWrongBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int lines;
+
+    @Param({"SORTED", "SHUFFLED"})
+    private LogGenerator.Order order;
+
+    private final Exercise5 exercise = new Exercise5();
+    private List<LogMessage> messages;
+    private LogMessageStore store;
+
+    @Setup
+    public void setUp() {
+        messages = LogGenerator.messages(lines, order);
+        store = LogMessageStore.of(messages);
+    }
+
+    @Benchmark
+    public List<String> whatWentWrong() {
+        return exercise.whatWentWrong(messages);
+    }
+
+    @Benchmark
+    public List<String> whatWentWrongTreeBased() {
+        return exercise.whatWentWrongTreeBased(messages);
+    }
+
+    @Benchmark
+    public List<String> whatWentWrongComposed() {
+        return exercise.whatWentWrongComposed(messages);
+    }
+
+    @Benchmark
+    public List<String> whatWentWrongColumnar() {
+        return exercise.whatWentWrongColumnar(store);
+    }
+}
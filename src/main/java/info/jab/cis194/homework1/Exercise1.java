@@ -1,8 +1,14 @@
 package info.jab.cis194.homework1;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -17,6 +23,21 @@ import java.util.stream.Stream;
  */
 public class Exercise1 {
 
+    // Digit sum of 2 * d for each digit d: 0, 2, 4, 6, 8, 1+0, 1+2, 1+4, 1+6, 1+8
+    private static final int[] DOUBLED_DIGIT_SUMS = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9};
+
+    private static final int SCAN_BUFFER_BYTES = 64 << 10;
+
+    // Contribution of a two-digit group when its tens digit is doubled (even-length numbers)
+    private static final int[] TENS_DOUBLED_PAIR_SUMS = IntStream.range(0, 100)
+            .map(pair -> pair % 10 + DOUBLED_DIGIT_SUMS[pair / 10])
+            .toArray();
+
+    // Contribution of a two-digit group when its ones digit is doubled (odd-length numbers)
+    private static final int[] ONES_DOUBLED_PAIR_SUMS = IntStream.range(0, 100)
+            .map(pair -> DOUBLED_DIGIT_SUMS[pair % 10] + pair / 10)
+            .toArray();
+
     /**
      * Convert a positive integer to a list of its digits using functional approach
      * @param n the number to convert
@@ -101,11 +122,108 @@ public class Exercise1 {
     }
 
     /**
-     * Validate a credit card number using Luhn algorithm with functional composition
+     * Validate a credit card number using the Luhn algorithm with plain arithmetic.
+     *
+     * Allocation free and equivalent to validateComposed, i.e. to summing
+     * doubleEveryOther(toDigitsRev(n)): the leftmost digit and every other digit after it
+     * are doubled, which is the standard Luhn check for even-length (e.g. 16-digit) numbers.
+     * Single-digit numbers are not doubled, and negative numbers have no digits, so their
+     * sum is 0 and they are reported valid.
+     *
+     * The number is consumed two digits at a time, looking each group up in 100-entry
+     * tables of digit sums; the parity of the length, known only at the end, selects
+     * which of the two running sums applies.
+     *
      * @param cardNumber the credit card number to validate
      * @return true if valid, false otherwise
      */
     public boolean validate(long cardNumber) {
+        if (cardNumber < 10) {
+            return cardNumber <= 0;
+        }
+
+        int evenLengthSum = 0;
+        int oddLengthSum = 0;
+        int leadingPair = 0;
+        for (long n = cardNumber; n > 0; n /= 100) {
+            leadingPair = (int) (n % 100);
+            evenLengthSum += TENS_DOUBLED_PAIR_SUMS[leadingPair];
+            oddLengthSum += ONES_DOUBLED_PAIR_SUMS[leadingPair];
+        }
+        return (leadingPair < 10 ? oddLengthSum : evenLengthSum) % 10 == 0;
+    }
+
+    /**
+     * Validate a card number written as text, e.g. "4111 1111 1111 1111" or "4111-1111-1111-1111".
+     *
+     * Applies the same rule as validate(long) to the digits of the text, scanned right to
+     * left in place. Spaces and hyphens are ignored; any other character, or the absence
+     * of digits, makes the number invalid. Numbers are not limited to the 19 digits that
+     * fit in a long.
+     *
+     * @param cardNumber the card number text
+     * @return true if valid, false otherwise
+     */
+    public boolean validate(CharSequence cardNumber) {
+        int evenLengthSum = 0;
+        int oddLengthSum = 0;
+        int digits = 0;
+        for (int i = cardNumber.length() - 1; i >= 0; i--) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if ((digits++ & 1) == 0) {
+                    evenLengthSum += digit;
+                    oddLengthSum += DOUBLED_DIGIT_SUMS[digit];
+                } else {
+                    evenLengthSum += DOUBLED_DIGIT_SUMS[digit];
+                    oddLengthSum += digit;
+                }
+            } else if (c != ' ' && c != '-') {
+                return false;
+            }
+        }
+        if (digits <= 1) {
+            return digits == 1 && evenLengthSum == 0;
+        }
+        return ((digits & 1) == 1 ? oddLengthSum : evenLengthSum) % 10 == 0;
+    }
+
+    /**
+     * Validate a batch of card numbers
+     *
+     * @param cardNumbers the card numbers to validate
+     * @return validity of each card number, index by index
+     */
+    public boolean[] validateAll(long[] cardNumbers) {
+        boolean[] valid = new boolean[cardNumbers.length];
+        for (int i = 0; i < cardNumbers.length; i++) {
+            valid[i] = validate(cardNumbers[i]);
+        }
+        return valid;
+    }
+
+    /**
+     * Validate a batch of card numbers written as text
+     *
+     * @param cardNumbers the card numbers to validate
+     * @return validity of each card number, index by index
+     */
+    public boolean[] validateAll(CharSequence... cardNumbers) {
+        boolean[] valid = new boolean[cardNumbers.length];
+        for (int i = 0; i < cardNumbers.length; i++) {
+            valid[i] = validate(cardNumbers[i]);
+        }
+        return valid;
+    }
+
+    /**
+     * Validate a credit card number using Luhn algorithm with functional composition
+     * of the reference API (toDigitsRev, doubleEveryOther, sumDigits)
+     * @param cardNumber the credit card number to validate
+     * @return true if valid, false otherwise
+     */
+    public boolean validateComposed(long cardNumber) {
         return Function.<Long>identity()
                 .andThen(this::toDigitsRev)
                 .andThen(this::doubleEveryOther)
@@ -126,4 +244,244 @@ public class Exercise1 {
                     .mapToInt(this::sumDigits)
                     .anyMatch(sum -> sum % 10 == 0);
     }
+
+    /**
+     * Scan card numbers from ASCII text held in memory (e.g. a CSV export read into a byte[])
+     *
+     * @param input the text to scan
+     * @return counts of valid and invalid card numbers, with the offsets of the invalid ones
+     */
+    public LuhnReport scan(byte[] input) {
+        LongStream.Builder offsets = LongStream.builder();
+        LuhnScanner scanner = new LuhnScanner(offsets::add).feed(input, 0, input.length).finish();
+        return new LuhnReport(scanner.valid(), scanner.invalid(), offsets.build().toArray());
+    }
+
+    /**
+     * Scan card numbers from the remaining bytes of a buffer, e.g. a MappedByteBuffer over an export
+     *
+     * @param input the text to scan; its position is moved to its limit
+     * @return counts of valid and invalid card numbers, with the offsets (relative to the
+     *         initial position) of the invalid ones
+     */
+    public LuhnReport scan(ByteBuffer input) {
+        LongStream.Builder offsets = LongStream.builder();
+        LuhnScanner scanner = new LuhnScanner(offsets::add).feed(input).finish();
+        return new LuhnReport(scanner.valid(), scanner.invalid(), offsets.build().toArray());
+    }
+
+    /**
+     * Scan card numbers read from a channel in fixed-size chunks, so exports of any size run
+     * in constant memory apart from the reported offsets
+     *
+     * @param channel the channel to read until end of stream
+     * @param invalidOffsets receives the byte offset of every invalid card number, in order
+     * @return counts of valid and invalid card numbers; offsets go to invalidOffsets only
+     */
+    public LuhnCounts scan(ReadableByteChannel channel, LongConsumer invalidOffsets) throws IOException {
+        LuhnScanner scanner = new LuhnScanner(invalidOffsets);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        while (channel.read(buffer) >= 0) {
+            scanner.feed(buffer.flip());
+            buffer.clear();
+        }
+        scanner.finish();
+        return new LuhnCounts(scanner.valid(), scanner.invalid());
+    }
+
+    /**
+     * Counts of a scan whose invalid offsets were streamed to a consumer instead of collected
+     *
+     * @param valid number of card numbers passing validate
+     * @param invalid number of card numbers failing validate, including malformed ones
+     */
+    public record LuhnCounts(long valid, long invalid) {
+
+        public long total() {
+            return valid + invalid;
+        }
+    }
+
+    /**
+     * Outcome of scanning a text of card numbers.
+     * Reports are compared, hashed and printed by the contents of invalidOffsets.
+     *
+     * @param valid number of card numbers passing validate
+     * @param invalid number of card numbers failing validate, including malformed ones
+     * @param invalidOffsets byte offset of the first non-blank character of each invalid card number
+     */
+    public record LuhnReport(long valid, long invalid, long[] invalidOffsets) {
+
+        public long total() {
+            return valid + invalid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LuhnReport other
+                && valid == other.valid
+                && invalid == other.invalid
+                && Arrays.equals(invalidOffsets, other.invalidOffsets);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(valid) + Long.hashCode(invalid)) + Arrays.hashCode(invalidOffsets);
+        }
+
+        @Override
+        public String toString() {
+            return "LuhnReport[valid=" + valid + ", invalid=" + invalid
+                + ", invalidOffsets=" + Arrays.toString(invalidOffsets) + "]";
+        }
+    }
+
+    /**
+     * Incremental Luhn validator over ASCII bytes fed in arbitrary chunks.
+     *
+     * Card numbers are separated by commas, semicolons, tabs or line breaks; empty fields are
+     * skipped. Inside a card number spaces and hyphens are ignored and any other byte makes it
+     * malformed, exactly as in validate(CharSequence). A card number may span chunks.
+     *
+     * Digits are processed left to right, where the rule of validate is simply "double the
+     * leftmost digit and every other digit after it". Each byte is classified with one load
+     * from a 256-entry table and each digit is weighted with one load from a table indexed
+     * by position parity, so the inner loop has no arithmetic branches on digit values.
+     * Heap buffers are scanned in place; direct and mapped buffers through a 64 KiB copy.
+     */
+    public static final class LuhnScanner {
+
+        private static final byte DIGIT = 0;
+        private static final byte IGNORED = 1;
+        private static final byte SEPARATOR = 2;
+        private static final byte OTHER = 3;
+
+        private static final byte[] CLASSES = new byte[256];
+        // Weight of digit d at even (d) and odd (10 + d) positions counted from the left
+        private static final int[] WEIGHTED_DIGITS = new int[20];
+
+        static {
+            Arrays.fill(CLASSES, OTHER);
+            for (char c = '0'; c <= '9'; c++) {
+                CLASSES[c] = DIGIT;
+            }
+            CLASSES[' '] = IGNORED;
+            CLASSES['-'] = IGNORED;
+            for (char c : new char[] {',', ';', '\t', '\n', '\r'}) {
+                CLASSES[c] = SEPARATOR;
+            }
+            for (int d = 0; d < 10; d++) {
+                WEIGHTED_DIGITS[d] = DOUBLED_DIGIT_SUMS[d];
+                WEIGHTED_DIGITS[10 + d] = d;
+            }
+        }
+
+        private final LongConsumer invalidOffsets;
+        private byte[] scratch;
+        private long position;
+        private long cardStart = -1;
+        private int digits;
+        private int sum;
+        private boolean malformed;
+        private long valid;
+        private long invalid;
+
+        /**
+         * Create a scanner reporting the offset of every invalid card number to invalidOffsets
+         */
+        public LuhnScanner(LongConsumer invalidOffsets) {
+            this.invalidOffsets = invalidOffsets;
+        }
+
+        /**
+         * Scan bytes[from, to) as the continuation of the text fed so far
+         */
+        public LuhnScanner feed(byte[] bytes, int from, int to) {
+            // Work on locals so the JIT keeps the card state in registers across the loop
+            long base = position - from;
+            long start = cardStart;
+            int count = digits;
+            int total = sum;
+            boolean bad = malformed;
+            for (int i = from; i < to; i++) {
+                int b = bytes[i] & 0xFF;
+                byte type = CLASSES[b];
+                if (type == DIGIT) {
+                    start = start < 0 ? base + i : start;
+                    total += WEIGHTED_DIGITS[(count & 1) * 10 + b - '0'];
+                    count++;
+                } else if (type == SEPARATOR) {
+                    if (start >= 0) {
+                        endCard(start, count, total, bad);
+                        start = -1;
+                        count = 0;
+                        total = 0;
+                        bad = false;
+                    }
+                } else if (type == OTHER) {
+                    start = start < 0 ? base + i : start;
+                    bad = true;
+                }
+            }
+            position += to - from;
+            cardStart = start;
+            digits = count;
+            sum = total;
+            malformed = bad;
+            return this;
+        }
+
+        /**
+         * Scan the remaining bytes of buffer as the continuation of the text fed so far
+         */
+        public LuhnScanner feed(ByteBuffer buffer) {
+            if (buffer.hasArray()) {
+                int from = buffer.arrayOffset() + buffer.position();
+                feed(buffer.array(), from, from + buffer.remaining());
+                buffer.position(buffer.limit());
+            }
+            if (buffer.hasRemaining() && scratch == null) {
+                scratch = new byte[SCAN_BUFFER_BYTES];
+            }
+            while (buffer.hasRemaining()) {
+                int length = Math.min(scratch.length, buffer.remaining());
+                buffer.get(scratch, 0, length);
+                feed(scratch, 0, length);
+            }
+            return this;
+        }
+
+        /**
+         * Account for the last card number when the text does not end with a separator
+         */
+        public LuhnScanner finish() {
+            if (cardStart >= 0) {
+                endCard(cardStart, digits, sum, malformed);
+                cardStart = -1;
+                digits = 0;
+                sum = 0;
+                malformed = false;
+            }
+            return this;
+        }
+
+        public long valid() {
+            return valid;
+        }
+
+        public long invalid() {
+            return invalid;
+        }
+
+        // A single digit d is doubled, and 2d has a digit sum divisible by 10 only for d = 0,
+        // so sum % 10 == 0 also covers the single-digit rule of validate
+        private void endCard(long start, int count, int total, boolean bad) {
+            if (!bad && count > 0 && total % 10 == 0) {
+                valid++;
+            } else {
+                invalid++;
+                invalidOffsets.accept(start);
+            }
+        }
+    }
 }
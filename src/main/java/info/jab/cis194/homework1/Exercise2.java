@@ -1,7 +1,16 @@
 package info.jab.cis194.homework1;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Exercise 2 - Tower of Hanoi
@@ -15,6 +24,16 @@ import java.util.stream.Stream;
  */
 public class Exercise2 {
 
+    /**
+     * Discs in the sub-towers replayed by each parallel task (2^12 - 1 moves each)
+     */
+    private static final int PARALLEL_SEGMENT_DISCS = 12;
+
+    /**
+     * Frame-Stewart split table shared by all instances, replaced by a larger one on demand
+     */
+    private static volatile FrameStewartTable frameStewartTable = FrameStewartTable.compute(0, 3);
+
     /**
      * Represents an immutable move from one peg to another using a record
      * Records provide immutability, equals(), hashCode(), and toString() automatically
@@ -122,6 +141,350 @@ public class Exercise2 {
         return hanoiAccumulator(n - 1, a, c, b, step2);
     }
 
+    /**
+     * Lazily stream the moves of the Tower of Hanoi solution, in the same order as hanoi.
+     *
+     * Moves are computed on demand from their index (see moveAt), so memory is O(1) whatever
+     * the number of discs, and the stream can be split across threads at any index.
+     *
+     * @param n number of discs, at most 63 (2^63 - 1 moves)
+     * @param a source peg
+     * @param b destination peg
+     * @param c auxiliary peg
+     * @return ordered, sized stream of the 2^n - 1 moves
+     */
+    public Stream<Move> hanoiLazy(int n, String a, String b, String c) {
+        return StreamSupport.stream(hanoiSpliterator(n, a, b, c), false);
+    }
+
+    /**
+     * Iterator over the moves of the Tower of Hanoi solution, in constant memory
+     */
+    public Iterator<Move> hanoiIterator(int n, String a, String b, String c) {
+        return Spliterators.iterator(hanoiSpliterator(n, a, b, c));
+    }
+
+    /**
+     * Spliterator over the moves of the Tower of Hanoi solution: ORDERED, SIZED and
+     * splittable at any index, since every move can be computed independently
+     */
+    public Spliterator<Move> hanoiSpliterator(int n, String a, String b, String c) {
+        return new HanoiSpliterator(moveTable(n, a, b, c), 0, calculateMinMoves(checkDiscs(n)));
+    }
+
+    /**
+     * The k-th move (0-based) of the Tower of Hanoi solution, without generating the others.
+     *
+     * For the 1-based move number m = k + 1, the moved disc is the number of trailing zeros
+     * of m, and with pegs numbered 0 (source), 1 and 2 the move goes from peg
+     * (m & (m - 1)) mod 3 to peg ((m | (m - 1)) + 1) mod 3. That sequence ends on peg 2
+     * for odd n and on peg 1 for even n, so pegs 1 and 2 are named after the parity of n.
+     *
+     * @param n number of discs, at most 63
+     * @param a source peg
+     * @param b destination peg
+     * @param c auxiliary peg
+     * @param k index of the move, 0 <= k < 2^n - 1
+     * @return the k-th move, equal to hanoi(n, a, b, c).get(k)
+     */
+    public Move moveAt(int n, String a, String b, String c, long k) {
+        long moves = calculateMinMoves(checkDiscs(n));
+        if (k < 0 || k >= moves) {
+            throw new IndexOutOfBoundsException("Move " + k + " out of bounds for " + moves + " moves");
+        }
+        return moveAt(moveTable(n, a, b, c), k);
+    }
+
+    private static Move moveAt(Move[] table, long k) {
+        long m = k + 1;
+        int from = (int) Long.remainderUnsigned(m & (m - 1), 3);
+        int to = (int) Long.remainderUnsigned((m | (m - 1)) + 1, 3);
+        return table[from * 3 + to];
+    }
+
+    private static int checkDiscs(int n) {
+        if (n > 63) {
+            throw new IllegalArgumentException("At most 63 discs are supported (2^63 - 1 moves)");
+        }
+        return n;
+    }
+
+    /**
+     * The six possible moves between numbered pegs, indexed by from * 3 + to, named for n discs
+     */
+    private static Move[] moveTable(int n, String a, String b, String c) {
+        String[] pegs = n % 2 == 0 ? new String[] {a, b, c} : new String[] {a, c, b};
+        Move[] table = new Move[9];
+        for (int from = 0; from < 3; from++) {
+            for (int to = 0; to < 3; to++) {
+                if (from != to) {
+                    table[from * 3 + to] = Move.of(pegs[from], pegs[to]);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Moves [index, end) of a solution, computed from their index and split in halves
+     */
+    private static final class HanoiSpliterator implements Spliterator<Move> {
+        private final Move[] table;
+        private long index;
+        private final long end;
+
+        HanoiSpliterator(Move[] table, long index, long end) {
+            this.table = table;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Move> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(moveAt(table, index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Move> action) {
+            for (long k = index; k < end; k++) {
+                action.accept(moveAt(table, k));
+            }
+            index = end;
+        }
+
+        @Override
+        public Spliterator<Move> trySplit() {
+            long middle = index + (end - index) / 2;
+            if (middle <= index) {
+                return null;
+            }
+            HanoiSpliterator prefix = new HanoiSpliterator(table, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Solve the Tower of Hanoi with any number of pegs using the Frame-Stewart algorithm
+     * @param n number of discs
+     * @param pegs peg names: source, destination, then at least one auxiliary peg
+     * @return immutable list of moves to solve the puzzle
+     */
+    public List<Move> hanoi(int n, List<String> pegs) {
+        return hanoiLazy(n, pegs).toList();
+    }
+
+    /**
+     * Lazily stream the Frame-Stewart solution for any number of pegs.
+     *
+     * To move n discs with p pegs, the t top discs go to an auxiliary peg using all p pegs,
+     * the remaining n - t go to the destination with the p - 1 pegs left, and the t discs
+     * follow them with all p pegs again; the optimal t comes from the memoised split table.
+     * With three pegs t is always n - 1, so the moves are those of hanoi(n, a, b, c).
+     *
+     * Moves are produced from an explicit stack of pending sub-problems, which holds at most
+     * 2n + 1 entries, so memory stays linear in n even when the move count is exponential.
+     *
+     * @param n number of discs
+     * @param pegs peg names: source, destination, then at least one auxiliary peg
+     * @return ordered stream of moves, sized when the move count fits in a long
+     */
+    public Stream<Move> hanoiLazy(int n, List<String> pegs) {
+        String[] names = checkPegs(pegs);
+        int discs = Math.max(n, 0);
+        FrameStewartTable table = frameStewartTable(discs, names.length);
+        Iterator<Move> moves = new FrameStewartIterator(table, names, discs);
+        long size = table.moves(discs, names.length);
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        Spliterator<Move> spliterator = size == Long.MAX_VALUE
+            ? Spliterators.spliteratorUnknownSize(moves, characteristics)
+            : Spliterators.spliterator(moves, size, characteristics);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private static String[] checkPegs(List<String> pegs) {
+        if (pegs.size() < 3) {
+            throw new IllegalArgumentException("At least 3 pegs are required, got " + pegs.size());
+        }
+        if (pegs.stream().distinct().count() != pegs.size()) {
+            throw new IllegalArgumentException("Peg names must be distinct: " + pegs);
+        }
+        return pegs.toArray(String[]::new);
+    }
+
+    /**
+     * The memoised split table covering n discs and p pegs, recomputed larger when needed
+     */
+    private static FrameStewartTable frameStewartTable(int n, int pegs) {
+        FrameStewartTable table = frameStewartTable;
+        int effectivePegs = FrameStewartTable.effectivePegs(n, pegs);
+        if (n > table.discs || effectivePegs > table.pegs) {
+            table = FrameStewartTable.compute(Math.max(n, table.discs), Math.max(effectivePegs, table.pegs));
+            frameStewartTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Frame-Stewart move counts and optimal splits for up to discs discs and pegs pegs.
+     *
+     * moves[p - 3][n] is the minimum number of moves for n discs and p pegs, saturated at
+     * Long.MAX_VALUE on overflow, and splits[p - 3][n] the number of discs parked aside
+     * first. Rows are filled by M(n, p) = min over 1 <= t < n of 2 M(t, p) + M(n - t, p - 1),
+     * in O(pegs * discs^2) time and O(pegs * discs) memory. More than n + 1 pegs never help,
+     * so the peg count is capped there and the table stays small for any peg list.
+     */
+    private static final class FrameStewartTable {
+        private final int discs;
+        private final int pegs;
+        private final long[][] moves;
+        private final int[][] splits;
+
+        private FrameStewartTable(int discs, int pegs, long[][] moves, int[][] splits) {
+            this.discs = discs;
+            this.pegs = pegs;
+            this.moves = moves;
+            this.splits = splits;
+        }
+
+        static int effectivePegs(int n, int pegs) {
+            return Math.max(3, Math.min(pegs, n + 1));
+        }
+
+        static FrameStewartTable compute(int discs, int pegs) {
+            long[][] moves = new long[pegs - 2][discs + 1];
+            int[][] splits = new int[pegs - 2][discs + 1];
+            for (int n = 1; n <= discs; n++) {
+                moves[0][n] = n < 63 ? (1L << n) - 1 : Long.MAX_VALUE;
+                splits[0][n] = n - 1;
+            }
+            for (int p = 1; p < pegs - 2; p++) {
+                long[] row = moves[p];
+                long[] fewerPegs = moves[p - 1];
+                for (int n = 1; n <= discs; n++) {
+                    // Some split always matches the count with one peg less, hence <= below
+                    long best = fewerPegs[n];
+                    int bestSplit = n - 1;
+                    for (int t = 1; t < n; t++) {
+                        long candidate = saturatedAdd(saturatedAdd(row[t], row[t]), fewerPegs[n - t]);
+                        if (candidate <= best) {
+                            best = candidate;
+                            bestSplit = t;
+                        }
+                    }
+                    row[n] = best;
+                    splits[p][n] = bestSplit;
+                }
+            }
+            return new FrameStewartTable(discs, pegs, moves, splits);
+        }
+
+        long moves(int n, int pegs) {
+            return moves[effectivePegs(n, pegs) - 3][n];
+        }
+
+        int split(int n, int pegs) {
+            return splits[effectivePegs(n, pegs) - 3][n];
+        }
+
+        private static long saturatedAdd(long a, long b) {
+            long sum = a + b;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+
+    /**
+     * Depth-first expansion of Frame-Stewart sub-problems into single-disc moves
+     */
+    private static final class FrameStewartIterator implements Iterator<Move> {
+
+        /**
+         * Move discs from peg index from to peg index to, with spares as auxiliary pegs
+         */
+        private record Task(int discs, int from, int to, int[] spares) {}
+
+        private final FrameStewartTable table;
+        private final Move[] moves;
+        private final int pegCount;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private Move next;
+
+        FrameStewartIterator(FrameStewartTable table, String[] pegs, int discs) {
+            this.table = table;
+            this.pegCount = pegs.length;
+            this.moves = new Move[pegCount * pegCount];
+            for (int from = 0; from < pegCount; from++) {
+                for (int to = 0; to < pegCount; to++) {
+                    if (from != to) {
+                        moves[from * pegCount + to] = Move.of(pegs[from], pegs[to]);
+                    }
+                }
+            }
+            int[] spares = new int[pegCount - 2];
+            for (int i = 0; i < spares.length; i++) {
+                spares[i] = i + 2;
+            }
+            if (discs > 0) {
+                tasks.push(new Task(discs, 0, 1, spares));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !tasks.isEmpty()) {
+                Task task = tasks.pop();
+                if (task.discs() == 1) {
+                    next = moves[task.from() * pegCount + task.to()];
+                } else if (task.discs() > 1) {
+                    expand(task);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Move next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move move = next;
+            next = null;
+            return move;
+        }
+
+        private void expand(Task task) {
+            int[] spares = task.spares();
+            int parked = table.split(task.discs(), spares.length + 2);
+            int aside = spares[0];
+            int[] remaining = Arrays.copyOfRange(spares, 1, spares.length);
+            // Pushed in reverse: park the top discs aside, move the rest, bring the top discs back
+            tasks.push(new Task(parked, aside, task.to(), withFirst(task.from(), remaining)));
+            tasks.push(new Task(task.discs() - parked, task.from(), task.to(), remaining));
+            tasks.push(new Task(parked, task.from(), aside, withFirst(task.to(), remaining)));
+        }
+
+        private static int[] withFirst(int peg, int[] others) {
+            int[] pegs = new int[others.length + 1];
+            pegs[0] = peg;
+            System.arraycopy(others, 0, pegs, 1, others.length);
+            return pegs;
+        }
+    }
+
     /**
      * Calculate the minimum number of moves required using the mathematical formula 2^n - 1
      * @param n number of discs
@@ -131,6 +494,35 @@ public class Exercise2 {
         return n <= 0 ? 0 : (1L << n) - 1;
     }
 
+    /**
+     * Calculate the minimum number of moves with any number of pegs (Frame-Stewart).
+     * With three pegs this is 2^n - 1; with more pegs it grows far slower, so hundreds
+     * of discs stay within a long for four pegs and up.
+     * @param n number of discs
+     * @param pegs number of pegs, at least 3
+     * @return minimum number of moves required
+     * @throws ArithmeticException if the number of moves does not fit in a long
+     */
+    public long calculateMinMoves(int n, int pegs) {
+        if (pegs < 3) {
+            throw new IllegalArgumentException("At least 3 pegs are required, got " + pegs);
+        }
+        if (n <= 0) {
+            return 0;
+        }
+        if (FrameStewartTable.effectivePegs(n, pegs) == 3) {
+            if (n > 63) {
+                throw new ArithmeticException("2^" + n + " - 1 moves overflow a long");
+            }
+            return calculateMinMoves(n);
+        }
+        long moves = frameStewartTable(n, pegs).moves(n, pegs);
+        if (moves == Long.MAX_VALUE) {
+            throw new ArithmeticException("Moves for " + n + " discs and " + pegs + " pegs overflow a long");
+        }
+        return moves;
+    }
+
     /**
      * Validate that a sequence of moves is valid for the Tower of Hanoi problem
      * @param moves list of moves to validate
@@ -143,6 +535,126 @@ public class Exercise2 {
                moves.stream().allMatch(move -> move.from() != null && move.to() != null);
     }
 
+    /**
+     * Outcome of replaying a move sequence against simulated pegs
+     * @param movesReplayed number of moves replayed, including the failing one
+     * @param failure why the sequence is not a solution, or null when it is one
+     */
+    public record SequenceCheck(long movesReplayed, String failure) {
+        public boolean valid() {
+            return failure == null;
+        }
+    }
+
+    /**
+     * Check that moves solve the puzzle by replaying them, see replay
+     */
+    public boolean isSolution(List<Move> moves, int n, String a, String b, String c) {
+        return replay(moves.iterator(), Math.max(n, 0), new String[] {a, b, c}).valid();
+    }
+
+    /**
+     * Replay streamed moves against simulated pegs, stopping at the first illegal move.
+     *
+     * Starting with n discs on the source peg, every move must take the top disc of a
+     * non-empty peg and put it on an empty peg or on a larger disc, and all discs must end
+     * on the destination peg. Pegs are int arrays of disc sizes with an int height each, so
+     * the replay allocates nothing per move and works for solutions of any length.
+     *
+     * @param moves moves to replay, consumed up to the first illegal one
+     * @param n number of discs
+     * @param pegs peg names: source, destination, then at least one auxiliary peg
+     * @return the number of moves replayed and the failure, if any
+     */
+    public SequenceCheck replay(Stream<Move> moves, int n, List<String> pegs) {
+        return replay(moves.iterator(), Math.max(n, 0), checkPegs(pegs));
+    }
+
+    /**
+     * Check a three-peg solution in parallel, validating segments independently.
+     *
+     * A minimal solution is unique and recursive: solve(n - 1, a, c, b), the move a -> b,
+     * then solve(n - 1, c, b, a). The list is cut along that structure into independent
+     * sub-towers of at most PARALLEL_SEGMENT_DISCS discs, whose boundary moves must match
+     * the expected largest-disc moves; each sub-tower is replayed on its own pegs, since the
+     * larger discs beneath it never constrain its moves. Sequences that are not of minimal
+     * length have no such structure and are replayed sequentially instead.
+     *
+     * @return the same answer as isSolution
+     */
+    public boolean isSolutionParallel(List<Move> moves, int n, String a, String b, String c) {
+        int discs = Math.max(n, 0);
+        if (discs <= PARALLEL_SEGMENT_DISCS || moves.size() != calculateMinMoves(discs)) {
+            return isSolution(moves, discs, a, b, c);
+        }
+        List<Segment> segments = new ArrayList<>();
+        collectSegments(discs, 0, a, b, c, null, segments);
+        return segments.parallelStream().allMatch(segment -> segment.check(moves));
+    }
+
+    /**
+     * A sub-tower of PARALLEL_SEGMENT_DISCS discs moved from pegs[0] to pegs[1], starting at
+     * offset, and the move of a larger disc expected right after it (null at the end)
+     */
+    private record Segment(int offset, String[] pegs, Move next) {
+        boolean check(List<Move> moves) {
+            int end = offset + (1 << PARALLEL_SEGMENT_DISCS) - 1;
+            return replay(moves.subList(offset, end).iterator(), PARALLEL_SEGMENT_DISCS, pegs).valid()
+                && (next == null || next.equals(moves.get(end)));
+        }
+    }
+
+    private static void collectSegments(int n, int offset, String a, String b, String c, Move next, List<Segment> segments) {
+        if (n == PARALLEL_SEGMENT_DISCS) {
+            segments.add(new Segment(offset, new String[] {a, b, c}, next));
+            return;
+        }
+        collectSegments(n - 1, offset, a, c, b, Move.of(a, b), segments);
+        collectSegments(n - 1, offset + (1 << (n - 1)), c, b, a, next, segments);
+    }
+
+    private static SequenceCheck replay(Iterator<? extends Move> moves, int n, String[] pegs) {
+        int[][] discs = new int[pegs.length][n];
+        int[] heights = new int[pegs.length];
+        for (int i = 0; i < n; i++) {
+            discs[0][i] = n - i;
+        }
+        heights[0] = n;
+
+        long replayed = 0;
+        while (moves.hasNext()) {
+            Move move = moves.next();
+            replayed++;
+            int from = pegIndex(pegs, move.from());
+            int to = pegIndex(pegs, move.to());
+            if (from < 0 || to < 0 || from == to) {
+                return new SequenceCheck(replayed, "Move " + replayed + " " + move + " is not between two known pegs");
+            }
+            if (heights[from] == 0) {
+                return new SequenceCheck(replayed, "Move " + replayed + " takes a disc from empty peg " + move.from());
+            }
+            int disc = discs[from][heights[from] - 1];
+            if (heights[to] > 0 && discs[to][heights[to] - 1] < disc) {
+                return new SequenceCheck(replayed, "Move " + replayed + " puts disc " + disc + " on a smaller disc");
+            }
+            discs[to][heights[to]++] = disc;
+            heights[from]--;
+        }
+        if (heights[1] != n) {
+            return new SequenceCheck(replayed, (n - heights[1]) + " discs are not on destination peg " + pegs[1]);
+        }
+        return new SequenceCheck(replayed, null);
+    }
+
+    private static int pegIndex(String[] pegs, String peg) {
+        for (int i = 0; i < pegs.length; i++) {
+            if (pegs[i].equals(peg)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Get all unique pegs involved in a sequence of moves
      * @param moves list of moves
@@ -1,7 +1,31 @@
 package info.jab.cis194.homework2;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 
 /**
@@ -16,6 +40,28 @@ import java.util.stream.Stream;
  */
 public class Exercise1 {
 
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_CHUNK_BYTES = 64L << 20;
+    private static final int BOUNDARY_PROBE_BYTES = 8 << 10;
+    private static final int MAX_MAPPED_CHUNK_BYTES = Integer.MAX_VALUE;
+
+    private final MessageInterner interner;
+
+    /**
+     * Create a parser that copies every message body
+     */
+    public Exercise1() {
+        this(null);
+    }
+
+    /**
+     * Create a parser that canonicalises message bodies through the given interner,
+     * so repeated texts share one String; null disables deduplication
+     */
+    public Exercise1(MessageInterner interner) {
+        this.interner = interner;
+    }
+
     /**
      * Parse a single log message line into a LogMessage.
      *
@@ -29,79 +75,141 @@ public class Exercise1 {
      * @return LogMessage representing the parsed line
      */
     public LogMessage parseMessage(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return LogMessage.unknown(line == null ? "" : line);
+        return parseMessage((CharSequence) line);
+    }
+
+    /**
+     * Parse a single log message held in any CharSequence (e.g. a CharBuffer over a mapped file).
+     *
+     * The line is scanned once: the type tag, severity and timestamp are decoded in place
+     * as ints, and only the message body is copied out as a substring. Leading and trailing
+     * whitespace is ignored and fields are separated by runs of whitespace.
+     *
+     * @param line the log line to parse
+     * @return LogMessage representing the parsed line
+     */
+    public LogMessage parseMessage(CharSequence line) {
+        if (line == null) {
+            return LogMessage.unknown("");
         }
 
-        String[] parts = line.trim().split("\\s+", 4);
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
 
-        if (parts.length < 2) {
-            return LogMessage.unknown(line);
+        // The type tag is a single character token followed by at least one more field
+        int pos = start + 1;
+        if (pos >= end || !isSeparator(line.charAt(pos))) {
+            return LogMessage.unknown(line.toString());
         }
+        pos = skipSeparators(line, pos, end);
 
-        return switch (parts[0]) {
-            case "I" -> parseInfoMessage(parts, line);
-            case "W" -> parseWarningMessage(parts, line);
-            case "E" -> parseErrorMessage(parts, line);
-            default -> LogMessage.unknown(line);
+        return switch (line.charAt(start)) {
+            case 'I' -> parseTimestampedMessage(MessageType.INFO, line, pos, end);
+            case 'W' -> parseTimestampedMessage(MessageType.WARNING, line, pos, end);
+            case 'E' -> parseErrorMessage(line, pos, end);
+            default -> LogMessage.unknown(line.toString());
         };
     }
 
     /**
-     * Parse an Info message: "I <timestamp> <message>"
+     * Parse "<severity> <timestamp> <message>" following an Error tag
      */
-    private LogMessage parseInfoMessage(String[] parts, String originalLine) {
-        if (parts.length < 2) {
-            return LogMessage.unknown(originalLine);
+    private LogMessage parseErrorMessage(CharSequence line, int pos, int end) {
+        int severityEnd = nextSeparator(line, pos, end);
+        int severity = parseNonNegativeInt(line, pos, severityEnd);
+        if (severity < 1 || severityEnd == end) {
+            return LogMessage.unknown(line.toString());
         }
 
-        try {
-            int timestamp = Integer.parseInt(parts[1]);
-            String message = parts.length > 2 ?
-                String.join(" ", Arrays.copyOfRange(parts, 2, parts.length)) : "";
-            return LogMessage.validMessage(MessageType.INFO, timestamp, message);
-        } catch (NumberFormatException e) {
-            return LogMessage.unknown(originalLine);
+        return parseTimestampedMessage(MessageType.error(severity), line,
+                skipSeparators(line, severityEnd, end), end);
+    }
+
+    /**
+     * Parse "<timestamp> <message>" once the type of the message is known
+     */
+    private LogMessage parseTimestampedMessage(MessageType type, CharSequence line, int pos, int end) {
+        int timestampEnd = nextSeparator(line, pos, end);
+        int timestamp = parseNonNegativeInt(line, pos, timestampEnd);
+        if (timestamp < 0) {
+            return LogMessage.unknown(line.toString());
         }
+
+        int messageStart = skipSeparators(line, timestampEnd, end);
+        return LogMessage.validMessage(type, timestamp, messageBody(line, messageStart, end));
+    }
+
+    private String messageBody(CharSequence line, int from, int to) {
+        return interner == null ? line.subSequence(from, to).toString() : interner.intern(line, from, to);
     }
 
     /**
-     * Parse a Warning message: "W <timestamp> <message>"
+     * Decode a decimal int in place, mirroring Integer.parseInt for ASCII digits.
+     *
+     * @return the value, or -1 when the token is not a number, is negative or overflows
      */
-    private LogMessage parseWarningMessage(String[] parts, String originalLine) {
-        if (parts.length < 2) {
-            return LogMessage.unknown(originalLine);
+    private static int parseNonNegativeInt(CharSequence line, int from, int to) {
+        int pos = from;
+        boolean negative = false;
+        if (pos < to && (line.charAt(pos) == '+' || line.charAt(pos) == '-')) {
+            negative = line.charAt(pos) == '-';
+            pos++;
+        }
+        if (pos == to) {
+            return -1;
         }
 
-        try {
-            int timestamp = Integer.parseInt(parts[1]);
-            String message = parts.length > 2 ?
-                String.join(" ", Arrays.copyOfRange(parts, 2, parts.length)) : "";
-            return LogMessage.validMessage(MessageType.WARNING, timestamp, message);
-        } catch (NumberFormatException e) {
-            return LogMessage.unknown(originalLine);
+        long value = 0;
+        for (; pos < to; pos++) {
+            int digit = line.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
         }
+        return negative && value != 0 ? -1 : (int) value;
     }
 
     /**
-     * Parse an Error message: "E <severity> <timestamp> <message>"
+     * Blank in the sense of String.trim().isEmpty(), without creating a String
      */
-    private LogMessage parseErrorMessage(String[] parts, String originalLine) {
-        if (parts.length < 3) {
-            return LogMessage.unknown(originalLine);
+    private static boolean isBlank(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nextSeparator(CharSequence line, int pos, int end) {
+        while (pos < end && !isSeparator(line.charAt(pos))) {
+            pos++;
         }
+        return pos;
+    }
 
-        try {
-            int severity = Integer.parseInt(parts[1]);
-            int timestamp = Integer.parseInt(parts[2]);
-            String message = parts.length > 3 ?
-                String.join(" ", Arrays.copyOfRange(parts, 3, parts.length)) : "";
-            return LogMessage.validMessage(MessageType.error(severity), timestamp, message);
-        } catch (NumberFormatException e) {
-            return LogMessage.unknown(originalLine);
-        } catch (IllegalArgumentException e) {
-            return LogMessage.unknown(originalLine);
+    private static int skipSeparators(CharSequence line, int pos, int end) {
+        while (pos < end && isSeparator(line.charAt(pos))) {
+            pos++;
         }
+        return pos;
+    }
+
+    /**
+     * Whitespace as matched by the regex \\s
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     /**
@@ -112,14 +220,19 @@ public class Exercise1 {
      * @return List of LogMessages, one per non-empty line
      */
     public List<LogMessage> parse(String logContent) {
+        LogEvents.Parse event = LogEvents.Parse.start();
+        List<LogMessage> messages;
         if (logContent == null || logContent.trim().isEmpty()) {
-            return List.of();
+            messages = List.of();
+        } else {
+            Stream<LogMessage> parsed = logContent.lines()
+                    .filter(line -> !line.trim().isEmpty())
+                    .map(this::parseMessage);
+            // Message counts for the event are gathered in this same pass, only while it is recorded
+            messages = (event.isEnabled() ? parsed.peek(event::count) : parsed).toList();
         }
-
-        return logContent.lines()
-                .filter(line -> !line.trim().isEmpty())
-                .map(this::parseMessage)
-                .toList();
+        event.finish(logContent, messages.size());
+        return messages;
     }
 
     /**
@@ -134,24 +247,453 @@ public class Exercise1 {
                 .toList();
     }
 
+    /**
+     * Lazily parse a log file line by line without loading it into memory.
+     *
+     * The returned stream keeps the file open until it is closed, so callers
+     * should consume it inside a try-with-resources block. Like every parseLines
+     * overload, bytes that are not valid UTF-8 make the stream throw an
+     * UncheckedIOException wrapping a MalformedInputException.
+     *
+     * @param logFile path of the log file (UTF-8)
+     * @return lazy Stream of LogMessages, one per non-empty line
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<LogMessage> parseLines(Path logFile) throws IOException {
+        return parseLines(Files.lines(logFile, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lazily parse log content read from an InputStream (UTF-8, malformed input reported).
+     * Closing the returned stream closes the underlying InputStream.
+     */
+    public Stream<LogMessage> parseLines(InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, reportingUtf8Decoder()));
+        return parseLines(reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    /**
+     * Lazily parse log content read from a ReadableByteChannel (UTF-8, malformed input reported).
+     * Closing the returned stream closes the underlying channel.
+     */
+    public Stream<LogMessage> parseLines(ReadableByteChannel channel) {
+        return parseLines(Channels.newInputStream(channel));
+    }
+
+    /**
+     * A UTF-8 decoder that fails on malformed input instead of substituting U+FFFD,
+     * so every file reader in this class agrees with Files.lines
+     */
+    private static CharsetDecoder reportingUtf8Decoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    private Stream<LogMessage> parseLines(Stream<String> lines) {
+        return lines
+                .filter(line -> !isBlank(line, 0, line.length()))
+                .map(this::parseMessage);
+    }
+
+    /**
+     * Result of parsing a log in chunks: the messages in line order, their counts,
+     * and the valid messages sorted by timestamp (ties keep line order)
+     */
+    public record ParsedLog(
+        List<LogMessage> messages,
+        MessageCounts counts,
+        List<LogMessage.ValidMessage> sortedMessages
+    ) {
+        public static final ParsedLog EMPTY = new ParsedLog(List.of(), MessageCounts.EMPTY, List.of());
+
+        static ParsedLog of(List<LogMessage> messages) {
+            List<LogMessage.ValidMessage> sorted = messages.stream()
+                    .filter(msg -> msg instanceof LogMessage.ValidMessage)
+                    .map(msg -> (LogMessage.ValidMessage) msg)
+                    .sorted(Comparator.comparingInt(LogMessage.ValidMessage::timestamp))
+                    .toList();
+            return new ParsedLog(Collections.unmodifiableList(messages), MessageCounts.fromMessages(messages), sorted);
+        }
+
+        /**
+         * Combine the results of consecutive chunks, given in file order.
+         *
+         * Each output list is allocated once at its final size and every message is copied
+         * into it exactly once: messages are concatenated and the per-chunk sorted lists go
+         * through a single k-way merge.
+         */
+        static ParsedLog concat(List<ParsedLog> parts) {
+            if (parts.size() == 1) {
+                return parts.get(0);
+            }
+            int messageCount = 0;
+            MessageCounts counts = MessageCounts.EMPTY;
+            for (ParsedLog part : parts) {
+                messageCount += part.messages.size();
+                counts = counts.plus(part.counts);
+            }
+            List<LogMessage> messages = new ArrayList<>(messageCount);
+            for (ParsedLog part : parts) {
+                messages.addAll(part.messages);
+            }
+            return new ParsedLog(Collections.unmodifiableList(messages), counts, mergeSorted(parts));
+        }
+
+        private static List<LogMessage.ValidMessage> mergeSorted(List<ParsedLog> parts) {
+            int[] positions = new int[parts.size()];
+            // Order the parts by their next message; prefer the earlier chunk on ties so equal timestamps keep line order
+            PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, parts.size()),
+                Comparator.<Integer>comparingInt(part -> parts.get(part).sortedMessages.get(positions[part]).timestamp())
+                    .thenComparingInt(part -> part));
+            int total = 0;
+            for (int part = 0; part < parts.size(); part++) {
+                int size = parts.get(part).sortedMessages.size();
+                total += size;
+                if (size > 0) {
+                    heads.add(part);
+                }
+            }
+
+            List<LogMessage.ValidMessage> merged = new ArrayList<>(total);
+            while (!heads.isEmpty()) {
+                int part = heads.poll();
+                List<LogMessage.ValidMessage> sorted = parts.get(part).sortedMessages;
+                merged.add(sorted.get(positions[part]++));
+                if (positions[part] < sorted.size()) {
+                    heads.add(part);
+                }
+            }
+            return Collections.unmodifiableList(merged);
+        }
+    }
+
+    /**
+     * Parse a log file in parallel on the common ForkJoinPool.
+     *
+     * @see #parseParallel(Path, ForkJoinPool, long)
+     */
+    public ParsedLog parseParallel(Path logFile) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return parseParallel(logFile, pool, defaultChunkBytes(Files.size(logFile), pool.getParallelism()));
+    }
+
+    /**
+     * Parse a log file by memory-mapping newline-aligned chunks and parsing them in parallel.
+     *
+     * Every chunk is decoded and parsed with parseMessage independently into its own slot;
+     * the chunk results are then combined once, in file order, so that messages stay in line
+     * order, counts are summed and the per-chunk sorted messages are merged into a single
+     * timestamp order.
+     *
+     * A chunk is mapped as a single buffer of at most Integer.MAX_VALUE bytes, so chunkBytes is
+     * capped at half of that to leave room for the end of the chunk's last line, and a file
+     * whose lines still push a chunk past the limit is rejected. Like parseLines(Path),
+     * bytes that are not valid UTF-8 fail the parse instead of being replaced.
+     *
+     * @param logFile path of the log file (UTF-8)
+     * @param pool the pool the chunk tasks run on
+     * @param chunkBytes target size of a chunk; chunks are extended to the end of their last line
+     * @return the parsed log
+     * @throws IOException if the file cannot be read or mapped, has a line longer than
+     *     Integer.MAX_VALUE bytes, or is not valid UTF-8
+     */
+    public ParsedLog parseParallel(Path logFile, ForkJoinPool pool, long chunkBytes) throws IOException {
+        return parseParallel(logFile, pool, chunkBytes, MAX_MAPPED_CHUNK_BYTES);
+    }
+
+    /**
+     * Parse in parallel with a smaller mapping limit, so the oversized-line path can be tested
+     */
+    ParsedLog parseParallel(Path logFile, ForkJoinPool pool, long chunkBytes, int maxChunkBytes) throws IOException {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            List<Chunk> chunks = splitIntoChunks(channel, Math.min(chunkBytes, maxChunkBytes / 2), maxChunkBytes);
+            if (chunks.isEmpty()) {
+                return ParsedLog.EMPTY;
+            }
+            ParsedLog[] results = new ParsedLog[chunks.size()];
+            pool.invoke(new ChunkParseTask(channel, chunks, results, 0));
+            return ParsedLog.concat(Arrays.asList(results));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long defaultChunkBytes(long fileSize, int parallelism) {
+        return Math.clamp(fileSize / (parallelism * 4L) + 1, MIN_CHUNK_BYTES, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * Byte range [start, end) of a log file that begins and ends on a line boundary
+     */
+    private record Chunk(long start, long end) {}
+
+    private static List<Chunk> splitIntoChunks(FileChannel channel, long chunkBytes, int maxChunkBytes)
+            throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = size - start <= chunkBytes ? size : nextLineStart(channel, start + chunkBytes, size);
+            if (end - start > maxChunkBytes) {
+                throw new IOException("Line at byte " + (start + chunkBytes)
+                    + " of " + size + " is too long to map in a chunk of " + maxChunkBytes + " bytes");
+            }
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Find the first byte after the next '\n' at or after position.
+     * A '\n' byte never occurs inside a multi-byte UTF-8 sequence, so this is a safe split point.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE_BYTES);
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Fork/join task that parses a contiguous run of chunks, splitting it in halves.
+     * The result of chunk i of the run is stored in results[offset + i].
+     */
+    private final class ChunkParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final transient List<Chunk> chunks;
+        private final transient ParsedLog[] results;
+        private final int offset;
+
+        ChunkParseTask(FileChannel channel, List<Chunk> chunks, ParsedLog[] results, int offset) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.results = results;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            if (chunks.size() == 1) {
+                results[offset] = parseChunk(chunks.get(0));
+                return;
+            }
+
+            int middle = chunks.size() / 2;
+            ChunkParseTask left = new ChunkParseTask(channel, chunks.subList(0, middle), results, offset);
+            ChunkParseTask right = new ChunkParseTask(channel, chunks.subList(middle, chunks.size()), results, offset + middle);
+            left.fork();
+            right.compute();
+            left.join();
+        }
+
+        private ParsedLog parseChunk(Chunk chunk) {
+            CharBuffer text;
+            try {
+                text = reportingUtf8Decoder().decode(
+                    channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.end() - chunk.start()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            List<LogMessage> messages = new ArrayList<>();
+            int lineStart = 0;
+            int length = text.length();
+            for (int i = 0; i <= length; i++) {
+                if (i == length || text.charAt(i) == '\n' || text.charAt(i) == '\r') {
+                    if (!isBlank(text, lineStart, i)) {
+                        messages.add(parseMessage(text.subSequence(lineStart, i)));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            return ParsedLog.of(messages);
+        }
+    }
+
+    /**
+     * Bounded, thread-safe cache of message bodies for repetitive logs.
+     *
+     * The cache is direct-mapped: a body hashes to one slot and replaces whatever was
+     * there, so memory stays at capacity entries no matter how many distinct texts
+     * are seen. Lookups hash and compare the characters in place, so a hit returns the
+     * cached String without allocating. Concurrent parsers may overwrite each other's
+     * slots, which only costs a miss.
+     */
+    public static final class MessageInterner {
+
+        private static final int DEFAULT_CAPACITY = 4096;
+
+        private final String[] slots;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        /**
+         * Create an interner with the default capacity of 4096 bodies
+         */
+        public MessageInterner() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Create an interner holding at most capacity bodies (rounded up to a power of two)
+         */
+        public MessageInterner(int capacity) {
+            if (capacity < 1 || capacity > 1 << 30) {
+                throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+            }
+            this.slots = new String[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        }
+
+        /**
+         * Canonical String for the characters text[from, to)
+         */
+        public String intern(CharSequence text, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            int slot = (hash ^ (hash >>> 16)) & (slots.length - 1);
+
+            String cached = slots[slot];
+            if (cached != null && contentEquals(cached, text, from, to)) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            String body = text.subSequence(from, to).toString();
+            slots[slot] = body;
+            return body;
+        }
+
+        /**
+         * Canonical String for the given text
+         */
+        public String intern(String text) {
+            return intern(text, 0, text.length());
+        }
+
+        /**
+         * Snapshot of the lookups served so far and the bodies currently cached
+         */
+        public Stats stats() {
+            int entries = 0;
+            for (String slot : slots) {
+                if (slot != null) {
+                    entries++;
+                }
+            }
+            return new Stats(hits.sum(), misses.sum(), entries, slots.length);
+        }
+
+        private static boolean contentEquals(String cached, CharSequence text, int from, int to) {
+            if (cached.length() != to - from) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (cached.charAt(i - from) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Interner metrics: hits and misses of intern calls, occupied and total slots
+         */
+        public record Stats(long hits, long misses, int entries, int capacity) {
+
+            /**
+             * Fraction of lookups answered from the cache, 0 when nothing was looked up
+             */
+            public double hitRate() {
+                long lookups = hits + misses;
+                return lookups == 0 ? 0.0 : (double) hits / lookups;
+            }
+        }
+    }
+
     /**
      * Count the number of messages of each type in a log
      */
     public record MessageCounts(long info, long warning, long error, long unknown) {
+
+        public static final MessageCounts EMPTY = new MessageCounts(0, 0, 0, 0);
+
         public static MessageCounts fromMessages(List<LogMessage> messages) {
-            long info = messages.stream()
-                .filter(msg -> msg instanceof LogMessage.ValidMessage vm && vm.messageType() == MessageType.INFO)
-                .count();
-            long warning = messages.stream()
-                .filter(msg -> msg instanceof LogMessage.ValidMessage vm && vm.messageType() == MessageType.WARNING)
-                .count();
-            long error = messages.stream()
-                .filter(msg -> msg instanceof LogMessage.ValidMessage vm && vm.messageType() instanceof MessageType.Error)
-                .count();
-            long unknown = messages.stream()
-                .filter(msg -> msg instanceof LogMessage.Unknown)
-                .count();
-            return new MessageCounts(info, warning, error, unknown);
+            return fromStream(messages.stream());
+        }
+
+        /**
+         * Count messages in a single pass, without materialising them
+         */
+        public static MessageCounts fromStream(Stream<? extends LogMessage> messages) {
+            return messages.collect(collector());
+        }
+
+        /**
+         * Collector accumulating counts into a primitive array, usable on sequential and parallel streams
+         */
+        public static Collector<LogMessage, long[], MessageCounts> collector() {
+            return Collector.of(
+                () -> new long[4],
+                MessageCounts::accumulate,
+                (left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                },
+                counts -> new MessageCounts(counts[0], counts[1], counts[2], counts[3]));
+        }
+
+        private static void accumulate(long[] counts, LogMessage message) {
+            switch (message) {
+                case LogMessage.ValidMessage vm when vm.messageType() instanceof MessageType.Info -> counts[0]++;
+                case LogMessage.ValidMessage vm when vm.messageType() instanceof MessageType.Warning -> counts[1]++;
+                case LogMessage.ValidMessage vm -> counts[2]++;
+                case LogMessage.Unknown unknown -> counts[3]++;
+            }
+        }
+
+        /**
+         * Combine the counts of two log fragments
+         */
+        public MessageCounts plus(MessageCounts other) {
+            return new MessageCounts(
+                info + other.info,
+                warning + other.warning,
+                error + other.error,
+                unknown + other.unknown);
+        }
+
+        public long total() {
+            return info + warning + error + unknown;
         }
     }
 
@@ -161,4 +703,11 @@ public class Exercise1 {
     public MessageCounts getMessageCounts(List<LogMessage> messages) {
         return MessageCounts.fromMessages(messages);
     }
+
+    /**
+     * Get statistics about a stream of messages in a single pass
+     */
+    public MessageCounts getMessageCounts(Stream<? extends LogMessage> messages) {
+        return MessageCounts.fromStream(messages);
+    }
 }
@@ -116,6 +116,84 @@ public class Exercise2 {
         };
     }
 
+    /**
+     * Insert a LogMessage keeping the tree height-balanced (AVL).
+     *
+     * Ordering is the same as insert (equal timestamps go to the left), and rotations
+     * preserve in-order sequence, so Exercise4.inOrder yields the same messages as for
+     * a tree built with insert. Nearly sorted input no longer degenerates into a list:
+     * insert and lookup stay O(log n), which also keeps recursion depth logarithmic.
+     *
+     * @param logMessage the message to insert
+     * @param tree the tree to insert into
+     * @return new balanced MessageTree containing the inserted message (if valid)
+     */
+    public MessageTree insertBalanced(LogMessage logMessage, MessageTree tree) {
+        return Optional.ofNullable(logMessage)
+                .filter(msg -> tree != null)
+                .map(msg -> switch (msg) {
+                    case LogMessage.ValidMessage validMessage -> insertValidBalanced(validMessage, tree);
+                    case LogMessage.Unknown unknown -> tree;
+                })
+                .orElseThrow(() -> new IllegalArgumentException("LogMessage and MessageTree cannot be null"));
+    }
+
+    private MessageTree insertValidBalanced(LogMessage.ValidMessage message, MessageTree tree) {
+        return switch (tree) {
+            case MessageTree.Leaf leaf ->
+                MessageTree.node(MessageTree.leaf(), message, MessageTree.leaf());
+
+            case MessageTree.Node node -> message.timestamp() <= node.timestamp()
+                ? balance(insertValidBalanced(message, node.left()), node.message(), node.right())
+                : balance(node.left(), node.message(), insertValidBalanced(message, node.right()));
+        };
+    }
+
+    /**
+     * Build a node from subtrees whose heights differ by at most two,
+     * applying a single or double rotation when they differ by two
+     */
+    private MessageTree balance(MessageTree left, LogMessage.ValidMessage message, MessageTree right) {
+        int difference = left.height() - right.height();
+
+        if (difference > 1 && left instanceof MessageTree.Node l) {
+            if (l.left().height() >= l.right().height()) {
+                return MessageTree.node(l.left(), l.message(), MessageTree.node(l.right(), message, right));
+            }
+            MessageTree.Node lr = (MessageTree.Node) l.right();
+            return MessageTree.node(
+                MessageTree.node(l.left(), l.message(), lr.left()),
+                lr.message(),
+                MessageTree.node(lr.right(), message, right));
+        }
+
+        if (difference < -1 && right instanceof MessageTree.Node r) {
+            if (r.right().height() >= r.left().height()) {
+                return MessageTree.node(MessageTree.node(left, message, r.left()), r.message(), r.right());
+            }
+            MessageTree.Node rl = (MessageTree.Node) r.left();
+            return MessageTree.node(
+                MessageTree.node(left, message, rl.left()),
+                rl.message(),
+                MessageTree.node(rl.right(), r.message(), r.right()));
+        }
+
+        return MessageTree.node(left, message, right);
+    }
+
+    /**
+     * Check if every node of the tree satisfies the AVL balance condition
+     */
+    public boolean isBalanced(MessageTree tree) {
+        return switch (tree) {
+            case MessageTree.Leaf leaf -> true;
+            case MessageTree.Node node ->
+                Math.abs(node.left().height() - node.right().height()) <= 1
+                    && isBalanced(node.left())
+                    && isBalanced(node.right());
+        };
+    }
+
     /**
      * Stack-safe insertion using Trampoline
      */
@@ -250,7 +328,7 @@ public class Exercise2 {
     }
 
     /**
-     * Get the height of the tree
+     * Get the height of the tree (stored in each node, so this is O(1))
      */
     public int getHeight(MessageTree tree) {
         return tree.height();
@@ -1,7 +1,10 @@
 package info.jab.cis194.homework2;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Exercise 3 - MessageTree Build Function
@@ -17,6 +20,10 @@ import java.util.Optional;
  */
 public class Exercise3 {
 
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 16;
+    private static final int SEQUENTIAL_SUBTREE_SIZE = 1 << 13;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+
     private final Exercise2 insertHelper = new Exercise2();
 
     /**
@@ -24,18 +31,22 @@ public class Exercise3 {
      *
      * This function successively inserts messages into a MessageTree starting with an empty tree.
      * Unknown messages are ignored (not inserted into the tree).
-     * The resulting tree maintains BST ordering by timestamp.
+     * The resulting tree maintains BST ordering by timestamp and is height-balanced,
+     * so already sorted logs do not degenerate into a linked list.
      *
      * @param messages list of LogMessages to build tree from
      * @return MessageTree containing all valid messages from the list
      */
     public MessageTree build(List<LogMessage> messages) {
-        return Optional.ofNullable(messages)
+        LogEvents.Build event = LogEvents.Build.start();
+        MessageTree result = Optional.ofNullable(messages)
                 .map(List::stream)
                 .orElse(java.util.stream.Stream.empty())
                 .reduce(MessageTree.leaf(),
-                       (tree, message) -> insertHelper.insert(message, tree),
+                       (tree, message) -> insertHelper.insertBalanced(message, tree),
                        (tree1, tree2) -> tree2); // Combiner not used in sequential stream
+        event.finish(messages, result);
+        return result;
     }
 
     /**
@@ -59,10 +70,122 @@ public class Exercise3 {
                 .orElse(java.util.stream.Stream.empty())
                 .map(msg -> (LogMessage) msg)
                 .reduce(MessageTree.leaf(),
-                       (tree, message) -> insertHelper.insert(message, tree),
+                       (tree, message) -> insertHelper.insertBalanced(message, tree),
                        (tree1, tree2) -> tree2);
     }
 
+    /**
+     * Bulk-build a perfectly balanced MessageTree from an unsorted batch.
+     *
+     * Valid messages are sorted once by packing (timestamp, position) into a primitive
+     * long[] key, and the tree is then built bottom-up from the sorted array in linear time,
+     * allocating exactly one node per message. Equal timestamps keep the order that
+     * build produces, so Exercise4.inOrder returns the same list.
+     *
+     * @param messages list of LogMessages to build tree from
+     * @return balanced MessageTree containing all valid messages from the list
+     */
+    public MessageTree buildBulk(List<LogMessage> messages) {
+        return buildBalanced(sortValidMessages(messages, false), false);
+    }
+
+    /**
+     * Parallel variant of buildBulk: sorts with Arrays.parallelSort and builds
+     * independent subtrees on the common ForkJoinPool
+     */
+    public MessageTree buildBulkParallel(List<LogMessage> messages) {
+        return buildBalanced(sortValidMessages(messages, true), true);
+    }
+
+    /**
+     * Build a perfectly balanced MessageTree from messages already sorted by timestamp
+     * (for instance Exercise1.ParsedLog.sortedMessages), in linear time
+     *
+     * @throws IllegalArgumentException if the messages are not sorted by timestamp
+     */
+    public MessageTree buildFromSorted(List<LogMessage.ValidMessage> sortedMessages) {
+        LogMessage.ValidMessage[] sorted = Optional.ofNullable(sortedMessages)
+                .orElse(List.of())
+                .toArray(LogMessage.ValidMessage[]::new);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1].timestamp() > sorted[i].timestamp()) {
+                throw new IllegalArgumentException("Messages must be sorted by timestamp");
+            }
+        }
+        return buildBalanced(sorted, sorted.length >= PARALLEL_BUILD_THRESHOLD);
+    }
+
+    /**
+     * Extract the valid messages ordered by timestamp. Later messages come first among
+     * equal timestamps, matching the in-order sequence of the insert-based build.
+     */
+    private LogMessage.ValidMessage[] sortValidMessages(List<LogMessage> messages, boolean parallel) {
+        LogMessage.ValidMessage[] valid = extractValidMessages(messages).toArray(LogMessage.ValidMessage[]::new);
+
+        long[] keys = new long[valid.length];
+        for (int i = 0; i < valid.length; i++) {
+            keys[i] = ((long) valid[i].timestamp() << 32) | (INDEX_MASK - i);
+        }
+        if (parallel) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+
+        LogMessage.ValidMessage[] sorted = new LogMessage.ValidMessage[valid.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = valid[(int) (INDEX_MASK - (keys[i] & INDEX_MASK))];
+        }
+        return sorted;
+    }
+
+    private MessageTree buildBalanced(LogMessage.ValidMessage[] sorted, boolean parallel) {
+        return parallel
+                ? ForkJoinPool.commonPool().invoke(new BalancedBuildTask(sorted, 0, sorted.length))
+                : buildBalanced(sorted, 0, sorted.length);
+    }
+
+    private static MessageTree buildBalanced(LogMessage.ValidMessage[] sorted, int from, int to) {
+        if (from >= to) {
+            return MessageTree.leaf();
+        }
+        int middle = (from + to) >>> 1;
+        return MessageTree.node(
+            buildBalanced(sorted, from, middle),
+            sorted[middle],
+            buildBalanced(sorted, middle + 1, to));
+    }
+
+    /**
+     * Fork/join task building the subtree for sorted[from, to)
+     */
+    private static final class BalancedBuildTask extends RecursiveTask<MessageTree> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient LogMessage.ValidMessage[] sorted;
+        private final int from;
+        private final int to;
+
+        BalancedBuildTask(LogMessage.ValidMessage[] sorted, int from, int to) {
+            this.sorted = sorted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MessageTree compute() {
+            if (to - from <= SEQUENTIAL_SUBTREE_SIZE) {
+                return buildBalanced(sorted, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            BalancedBuildTask left = new BalancedBuildTask(sorted, from, middle);
+            left.fork();
+            MessageTree right = new BalancedBuildTask(sorted, middle + 1, to).compute();
+            return MessageTree.node(left.join(), sorted[middle], right);
+        }
+    }
+
     /**
      * Count valid messages in a list (utility method)
      */
@@ -79,15 +202,20 @@ public class Exercise3 {
      */
     public record BuildResult(MessageTree tree, long totalMessages, long validMessages, long unknownMessages) {}
 
+    /**
+     * Uses the bulk builder, switching to the parallel build for large batches
+     */
     public BuildResult buildWithStatistics(List<LogMessage> messages) {
         if (messages == null) {
             return new BuildResult(MessageTree.leaf(), 0, 0, 0);
         }
 
+        boolean parallel = messages.size() >= PARALLEL_BUILD_THRESHOLD;
+        LogMessage.ValidMessage[] sorted = sortValidMessages(messages, parallel);
         long total = messages.size();
-        long valid = countValidMessages(messages);
+        long valid = sorted.length;
         long unknown = total - valid;
-        MessageTree tree = build(messages);
+        MessageTree tree = buildBalanced(sorted, parallel);
 
         return new BuildResult(tree, total, valid, unknown);
     }
@@ -1,7 +1,13 @@
 package info.jab.cis194.homework2;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Exercise 4 - MessageTree InOrder Function
@@ -28,9 +34,7 @@ public class Exercise4 {
      * @return List of ValidMessages sorted by timestamp (ascending order)
      */
     public List<LogMessage.ValidMessage> inOrder(MessageTree tree) {
-        return Optional.ofNullable(tree)
-                .map(this::inOrderFunctional)
-                .orElse(List.of());
+        return inOrderStream(tree);
     }
 
     /**
@@ -70,28 +74,17 @@ public class Exercise4 {
     }
 
     /**
-     * Alternative implementation using Java streams for concatenation
+     * Alternative implementation streaming the tree's in-order spliterator.
+     *
+     * The spliterator walks the tree with an explicit stack and knows its exact size,
+     * so the only list allocated is the result, and deep (unbalanced) trees do not recurse.
      */
     public List<LogMessage.ValidMessage> inOrderStream(MessageTree tree) {
         return Optional.ofNullable(tree)
-                .map(this::inOrderStreamHelper)
+                .map(t -> t.stream().toList())
                 .orElse(List.of());
     }
 
-    private List<LogMessage.ValidMessage> inOrderStreamHelper(MessageTree tree) {
-        return switch (tree) {
-            case MessageTree.Leaf leaf -> List.of();
-            case MessageTree.Node node -> {
-                yield java.util.stream.Stream.of(
-                    inOrderStreamHelper(node.left()).stream(),
-                    java.util.stream.Stream.of(node.message()),
-                    inOrderStreamHelper(node.right()).stream()
-                ).flatMap(java.util.function.Function.identity())
-                 .toList();
-            }
-        };
-    }
-
     /**
      * Get all messages from a tree as a sorted list (convenience method)
      */
@@ -133,16 +126,175 @@ public class Exercise4 {
      * Get the number of messages in the tree using inOrder traversal
      */
     public int countMessages(MessageTree tree) {
-        return inOrder(tree).size();
+        return Optional.ofNullable(tree).map(MessageTree::size).orElse(0);
     }
 
     /**
-     * Find messages within a timestamp range using inOrder traversal
+     * Find messages within a timestamp range [minTimestamp, maxTimestamp], sorted by timestamp
      */
     public List<LogMessage.ValidMessage> findMessagesInRange(MessageTree tree, int minTimestamp, int maxTimestamp) {
-        return inOrder(tree).stream()
-                .filter(msg -> msg.timestamp() >= minTimestamp && msg.timestamp() <= maxTimestamp)
-                .toList();
+        return streamMessagesInRange(tree, minTimestamp, maxTimestamp).toList();
+    }
+
+    /**
+     * Lazily stream the messages within [minTimestamp, maxTimestamp] in timestamp order.
+     *
+     * Subtrees entirely outside the range are never visited, so consuming k messages
+     * costs O(log n + k) on a balanced tree.
+     */
+    public Stream<LogMessage.ValidMessage> streamMessagesInRange(MessageTree tree, int minTimestamp, int maxTimestamp) {
+        return streamMessagesInRange(tree, minTimestamp, maxTimestamp, 0);
+    }
+
+    /**
+     * Lazily stream the messages within [minTimestamp, maxTimestamp] from the offset-th one on.
+     *
+     * The first message is located by rank using the subtree sizes, so a page of k messages
+     * at any offset costs O(log n + k) on a balanced tree, unlike Stream.skip which walks
+     * every skipped message.
+     *
+     * @throws IllegalArgumentException if offset is negative
+     */
+    public Stream<LogMessage.ValidMessage> streamMessagesInRange(MessageTree tree, int minTimestamp, int maxTimestamp,
+                                                                 long offset) {
+        return StreamSupport.stream(rangeSpliterator(tree, minTimestamp, maxTimestamp, offset), false);
+    }
+
+    /**
+     * Ordered spliterator over the messages within [minTimestamp, maxTimestamp]
+     */
+    public Spliterator<LogMessage.ValidMessage> rangeSpliterator(MessageTree tree, int minTimestamp, int maxTimestamp) {
+        return rangeSpliterator(tree, minTimestamp, maxTimestamp, 0);
+    }
+
+    /**
+     * Ordered, sized spliterator over the messages within [minTimestamp, maxTimestamp],
+     * starting at the offset-th message of the range
+     *
+     * @throws IllegalArgumentException if offset is negative
+     */
+    public Spliterator<LogMessage.ValidMessage> rangeSpliterator(MessageTree tree, int minTimestamp, int maxTimestamp,
+                                                                 long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        return new RangeSpliterator(Optional.ofNullable(tree).orElse(MessageTree.leaf()), minTimestamp, maxTimestamp, offset);
+    }
+
+    /**
+     * Count the messages within [minTimestamp, maxTimestamp] without visiting them.
+     *
+     * The count is rank(maxTimestamp) - rank(minTimestamp), each rank found by one
+     * root-to-leaf walk over the subtree sizes, so it costs O(log n) on a balanced tree.
+     */
+    public long countMessagesInRange(MessageTree tree, int minTimestamp, int maxTimestamp) {
+        if (tree == null || minTimestamp > maxTimestamp) {
+            return 0;
+        }
+        return countBelow(tree, maxTimestamp + 1L) - countBelow(tree, minTimestamp);
+    }
+
+    /**
+     * Number of messages with a timestamp below bound, following a single root-to-leaf path
+     */
+    private static long countBelow(MessageTree tree, long bound) {
+        long count = 0;
+        while (tree instanceof MessageTree.Node node) {
+            if (node.timestamp() < bound) {
+                count += node.left().size() + 1;
+                tree = node.right();
+            } else {
+                tree = node.left();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lazily stream the error messages with severity >= minSeverity within [minTimestamp, maxTimestamp]
+     */
+    public Stream<LogMessage.ValidMessage> streamErrorsInRange(MessageTree tree, int minTimestamp, int maxTimestamp,
+                                                               int minSeverity) {
+        return streamMessagesInRange(tree, minTimestamp, maxTimestamp)
+                .filter(msg -> msg.isHighSeverityError(minSeverity));
+    }
+
+    /**
+     * In-order traversal restricted to a timestamp range, driven by an explicit stack.
+     *
+     * Relies only on left <= node <= right, which holds for trees built by insert,
+     * insertBalanced and the bulk builders. The range maps to a run of in-order ranks,
+     * found with countBelow; the stack is positioned at the first requested rank by one
+     * descent over the subtree sizes, and iteration stops once the run is used up.
+     */
+    private static final class RangeSpliterator implements Spliterator<LogMessage.ValidMessage> {
+        private final Deque<MessageTree.Node> stack = new ArrayDeque<>();
+        private long remaining;
+
+        RangeSpliterator(MessageTree root, int minTimestamp, int maxTimestamp, long offset) {
+            if (minTimestamp <= maxTimestamp) {
+                long first = countBelow(root, minTimestamp) + Math.min(offset, root.size());
+                remaining = Math.max(0, countBelow(root, maxTimestamp + 1L) - first);
+                if (remaining > 0) {
+                    pushPathToRank(root, first);
+                }
+            }
+        }
+
+        /**
+         * Push the nodes an in-order walk would have on its stack just before visiting rank
+         */
+        private void pushPathToRank(MessageTree tree, long rank) {
+            while (tree instanceof MessageTree.Node node) {
+                int leftSize = node.left().size();
+                if (rank < leftSize) {
+                    stack.push(node);
+                    tree = node.left();
+                } else if (rank == leftSize) {
+                    stack.push(node);
+                    return;
+                } else {
+                    rank -= leftSize + 1;
+                    tree = node.right();
+                }
+            }
+        }
+
+        private void pushLeftSpine(MessageTree tree) {
+            while (tree instanceof MessageTree.Node node) {
+                stack.push(node);
+                tree = node.left();
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LogMessage.ValidMessage> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            MessageTree.Node node = stack.pop();
+            remaining--;
+            if (remaining > 0) {
+                pushLeftSpine(node.right());
+            }
+            action.accept(node.message());
+            return true;
+        }
+
+        @Override
+        public Spliterator<LogMessage.ValidMessage> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | NONNULL | IMMUTABLE;
+        }
     }
 
     /**
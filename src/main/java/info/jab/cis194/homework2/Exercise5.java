@@ -1,7 +1,29 @@
 package info.jab.cis194.homework2;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Stream;
 
 /**
@@ -16,18 +38,63 @@ import java.util.stream.Stream;
  *
  * The whatWentWrong function extracts high-severity error messages from a log,
  * filters for errors with severity >= 50, and returns them sorted by timestamp.
+ * The threshold of 50 is the default and can be configured per instance.
  */
 public class Exercise5 {
 
+    private static final int DEFAULT_SEVERITY_THRESHOLD = 50;
+
+    /**
+     * Order for "first N": earliest timestamp first, ties in encounter order
+     */
+    private static final Comparator<Candidate> BY_TIMESTAMP =
+            Comparator.comparingInt((Candidate candidate) -> candidate.message().timestamp())
+                    .thenComparingLong(Candidate::sequence);
+
+    /**
+     * Order for "worst N": highest severity first, then earliest timestamp
+     */
+    private static final Comparator<Candidate> BY_SEVERITY =
+            Comparator.comparingInt((Candidate candidate) -> candidate.message().getSeverity()).reversed()
+                    .thenComparing(BY_TIMESTAMP);
+
+    /**
+     * Starting heap size for top-K selection; the heap grows with the matches it retains
+     */
+    private static final int INITIAL_HEAP_CAPACITY = 64;
+
+    private static final int FOLLOW_READ_BUFFER_BYTES = 64 << 10;
+    private static final int FOLLOW_OPEN_ATTEMPTS = 3;
+    private static final int DEFAULT_CONCURRENT_READS = 32;
+
+    private final Exercise1 parseOperations = new Exercise1();
     private final Exercise3 buildOperations = new Exercise3();
     private final Exercise4 traversalOperations = new Exercise4();
+    private final int severityThreshold;
+
+    /**
+     * Create an analyzer using the homework's severity threshold of 50
+     */
+    public Exercise5() {
+        this(DEFAULT_SEVERITY_THRESHOLD);
+    }
+
+    /**
+     * Create an analyzer that treats errors with severity >= severityThreshold as relevant
+     */
+    public Exercise5(int severityThreshold) {
+        if (severityThreshold < 0) {
+            throw new IllegalArgumentException("Severity threshold must be non-negative");
+        }
+        this.severityThreshold = severityThreshold;
+    }
 
     /**
      * Extract relevant error messages from an unsorted list of LogMessages.
      *
-     * "Relevant" means errors with a severity of at least 50.
+     * "Relevant" means errors with a severity of at least the configured threshold (50 by default).
      * The function:
-     * 1. Filters for error messages with severity >= 50
+     * 1. Filters for error messages at or above the threshold
      * 2. Sorts them by timestamp using functional composition
      * 3. Returns the error message strings
      *
@@ -40,12 +107,15 @@ public class Exercise5 {
             throw new IllegalArgumentException("Messages list cannot be null");
         }
 
-        return messages.stream()
+        LogEvents.WhatWentWrong event = LogEvents.WhatWentWrong.start();
+        List<String> result = messages.stream()
                 .filter(this::isHighSeverityError)
                 .map(msg -> (LogMessage.ValidMessage) msg) // Safe cast after filtering
                 .sorted((msg1, msg2) -> Integer.compare(msg1.timestamp(), msg2.timestamp()))
                 .map(LogMessage.ValidMessage::message)
                 .toList();
+        event.finish(messages, severityThreshold, result);
+        return result;
     }
 
     /**
@@ -87,13 +157,146 @@ public class Exercise5 {
     }
 
     /**
-     * Check if a LogMessage is a high-severity error (severity >= 50)
+     * Streaming variant of whatWentWrong for logs that do not fit in memory.
+     *
+     * Only the high-severity errors are retained while the stream is consumed,
+     * so memory is bounded by the size of the result rather than the log.
+     *
+     * @param messages stream of LogMessages, e.g. from Exercise1.parseLines
+     * @return list of error message strings for high-severity errors, sorted by timestamp
+     * @throws IllegalArgumentException if messages is null
+     */
+    public List<String> whatWentWrongStreaming(Stream<? extends LogMessage> messages) {
+        if (messages == null) {
+            throw new IllegalArgumentException("Messages stream cannot be null");
+        }
+
+        return messages
+                .filter(this::isHighSeverityError)
+                .map(msg -> (LogMessage.ValidMessage) msg)
+                .sorted((msg1, msg2) -> Integer.compare(msg1.timestamp(), msg2.timestamp()))
+                .map(LogMessage.ValidMessage::message)
+                .toList();
+    }
+
+    /**
+     * Columnar variant of whatWentWrong that scans the type and severity columns of a
+     * LogMessageStore and sorts packed (timestamp, index) keys, so message text is only
+     * decoded for the errors that are returned.
+     *
+     * @param store columnar log messages
+     * @return list of error message strings for high-severity errors, sorted by timestamp
+     * @throws IllegalArgumentException if store is null
+     */
+    public List<String> whatWentWrongColumnar(LogMessageStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Message store cannot be null");
+        }
+
+        long[] keys = new long[store.size()];
+        int count = 0;
+        for (int i = 0; i < store.size(); i++) {
+            if (store.isHighSeverityError(i, getSeverityThreshold())) {
+                keys[count++] = ((long) store.timestamp(i) << 32) | i;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+
+        return Arrays.stream(keys, 0, count)
+                .mapToObj(key -> store.message((int) key))
+                .toList();
+    }
+
+    /**
+     * Earliest high-severity errors, in timestamp order.
+     *
+     * Consumes the stream once keeping a bounded max-heap of at most limit candidates,
+     * so memory is O(limit) however long the log is. The result equals the first limit
+     * entries of whatWentWrong on the same messages.
+     *
+     * @param messages stream of LogMessages in log order
+     * @param limit maximum number of errors to return
+     * @return up to limit high-severity errors sorted by timestamp
+     */
+    public List<LogMessage.ValidMessage> firstHighSeverityErrors(Stream<? extends LogMessage> messages, int limit) {
+        return selectTop(messages, limit, BY_TIMESTAMP);
+    }
+
+    /**
+     * Earliest high-severity errors from a timestamp-ordered tree. The in-order traversal
+     * is lazy and stops as soon as limit errors have been found.
+     */
+    public List<LogMessage.ValidMessage> firstHighSeverityErrors(MessageTree tree, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+
+        return traversalOperations.streamMessagesInRange(tree, Integer.MIN_VALUE, Integer.MAX_VALUE)
+                .filter(this::isHighSeverityError)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Most severe high-severity errors, highest severity first (ties by earliest timestamp).
+     *
+     * Consumes the stream once keeping a bounded min-heap of at most limit candidates.
+     *
+     * @param messages stream of LogMessages in log order
+     * @param limit maximum number of errors to return
+     * @return up to limit high-severity errors sorted by descending severity
+     */
+    public List<LogMessage.ValidMessage> worstHighSeverityErrors(Stream<? extends LogMessage> messages, int limit) {
+        return selectTop(messages, limit, BY_SEVERITY);
+    }
+
+    /**
+     * High-severity error tagged with its position in the input, to keep selections stable
+     */
+    private record Candidate(LogMessage.ValidMessage message, long sequence) {}
+
+    /**
+     * Select the first limit high-severity errors according to order in a single pass
+     */
+    private List<LogMessage.ValidMessage> selectTop(Stream<? extends LogMessage> messages, int limit,
+                                                    Comparator<Candidate> order) {
+        if (messages == null) {
+            throw new IllegalArgumentException("Messages stream cannot be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+
+        // Heap ordered with the worst retained candidate on top, ready to be evicted
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(limit, INITIAL_HEAP_CAPACITY) + 1, order.reversed());
+        long sequence = 0;
+        Iterator<? extends LogMessage> iterator = messages.iterator();
+        while (iterator.hasNext() && limit > 0) {
+            LogMessage message = iterator.next();
+            if (!isHighSeverityError(message)) {
+                continue;
+            }
+            Candidate candidate = new Candidate((LogMessage.ValidMessage) message, sequence++);
+            if (heap.size() < limit) {
+                heap.offer(candidate);
+            } else if (order.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(candidate);
+            }
+        }
+
+        return heap.stream()
+                .sorted(order)
+                .map(Candidate::message)
+                .toList();
+    }
+
+    /**
+     * Check if a LogMessage is a high-severity error (severity >= the configured threshold)
      */
     private boolean isHighSeverityError(LogMessage message) {
         return switch (message) {
-            case LogMessage.ValidMessage validMsg ->
-                validMsg.messageType() instanceof MessageType.Error error &&
-                error.severity() >= 50;
+            case LogMessage.ValidMessage validMsg -> validMsg.isHighSeverityError(severityThreshold);
             case LogMessage.Unknown unknown -> false;
         };
     }
@@ -155,10 +358,10 @@ public class Exercise5 {
     }
 
     /**
-     * Get the severity threshold used for filtering
+     * Get the severity threshold used for filtering (50 unless configured)
      */
     public int getSeverityThreshold() {
-        return 50;
+        return severityThreshold;
     }
 
     /**
@@ -193,4 +396,390 @@ public class Exercise5 {
 
         return new ErrorSummary(totalMessages, totalErrors, highSeverityErrors, highSeverityErrorMessages);
     }
+
+    /**
+     * Get summary statistics about errors in a single pass over a stream of messages
+     */
+    public ErrorSummary getErrorSummary(Stream<? extends LogMessage> messages) {
+        if (messages == null) {
+            return new ErrorSummary(0, 0, 0, List.of());
+        }
+
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        messages.forEachOrdered(accumulator::accept);
+        return accumulator.toSummary();
+    }
+
+    /**
+     * Mutable, single-threaded accumulator behind the streaming summary
+     */
+    private final class SummaryAccumulator {
+        private long totalMessages;
+        private long totalErrors;
+        private final List<LogMessage.ValidMessage> highSeverity = new ArrayList<>();
+
+        void accept(LogMessage message) {
+            totalMessages++;
+            if (message instanceof LogMessage.ValidMessage validMsg
+                    && validMsg.messageType() instanceof MessageType.Error) {
+                totalErrors++;
+                if (isHighSeverityError(validMsg)) {
+                    highSeverity.add(validMsg);
+                }
+            }
+        }
+
+        ErrorSummary toSummary() {
+            return new ErrorSummary(totalMessages, totalErrors, highSeverity.size(),
+                    sortAndExtractMessages(highSeverity));
+        }
+    }
+
+    /**
+     * High-severity error found in one of several log files
+     */
+    public record FileError(Path file, LogMessage.ValidMessage message) {}
+
+    /**
+     * Analyse many log files at once with the default limit of concurrently open files
+     *
+     * @see #whatWentWrongInFiles(List, int)
+     */
+    public List<FileError> whatWentWrongInFiles(List<Path> files) throws IOException {
+        return whatWentWrongInFiles(files, DEFAULT_CONCURRENT_READS);
+    }
+
+    /**
+     * Analyse many log files at once (e.g. one per host) into one timestamp-ordered error report.
+     *
+     * Every file is streamed through Exercise1.parseLines on its own virtual thread, while a
+     * semaphore keeps at most maxConcurrentReads files open so hundreds of hosts do not exhaust
+     * file descriptors or disk bandwidth. Each file's high-severity errors are sorted as in
+     * whatWentWrong, then the per-file lists are k-way merged through a heap in
+     * O(n log k). Ties on timestamp keep file order, then line order.
+     *
+     * @param files log files to analyse, in the order used to break timestamp ties
+     * @param maxConcurrentReads maximum number of files read at the same time
+     * @return high-severity errors of all files, sorted by timestamp
+     * @throws IOException the failure of the first file (in file order) that could not be read
+     */
+    public List<FileError> whatWentWrongInFiles(List<Path> files, int maxConcurrentReads) throws IOException {
+        if (files == null) {
+            throw new IllegalArgumentException("Files list cannot be null");
+        }
+        if (maxConcurrentReads < 1) {
+            throw new IllegalArgumentException("At least one concurrent read is required");
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrentReads);
+        List<List<LogMessage.ValidMessage>> perFile = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<LogMessage.ValidMessage>>> futures = files.stream()
+                    .map(file -> executor.submit(() -> highSeverityErrorsInFile(file, permits)))
+                    .toList();
+            for (Future<List<LogMessage.ValidMessage>> future : futures) {
+                try {
+                    perFile.add(awaitFile(future));
+                } catch (IOException | RuntimeException e) {
+                    executor.shutdownNow();
+                    throw e;
+                }
+            }
+        }
+        return mergeByTimestamp(files, perFile);
+    }
+
+    private List<LogMessage.ValidMessage> highSeverityErrorsInFile(Path file, Semaphore permits)
+            throws IOException, InterruptedException {
+        permits.acquire();
+        try (Stream<LogMessage> messages = parseOperations.parseLines(file)) {
+            return messages
+                    .filter(this::isHighSeverityError)
+                    .map(msg -> (LogMessage.ValidMessage) msg)
+                    .sorted(Comparator.comparingInt(LogMessage.ValidMessage::timestamp))
+                    .toList();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static List<LogMessage.ValidMessage> awaitFile(Future<List<LogMessage.ValidMessage>> future)
+            throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while analysing log files");
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case IOException io -> throw io;
+                case UncheckedIOException unchecked -> throw unchecked.getCause();
+                case RuntimeException runtime -> throw runtime;
+                case Error error -> throw error;
+                default -> throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * K-way merge of per-file lists already sorted by timestamp
+     */
+    private static List<FileError> mergeByTimestamp(List<Path> files, List<List<LogMessage.ValidMessage>> perFile) {
+        int[] positions = new int[perFile.size()];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, perFile.size()),
+                Comparator.<Integer>comparingInt(file -> perFile.get(file).get(positions[file]).timestamp())
+                        .thenComparingInt(file -> file));
+        int total = 0;
+        for (int file = 0; file < perFile.size(); file++) {
+            total += perFile.get(file).size();
+            if (!perFile.get(file).isEmpty()) {
+                heads.offer(file);
+            }
+        }
+
+        List<FileError> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int file = heads.poll();
+            merged.add(new FileError(files.get(file), perFile.get(file).get(positions[file]++)));
+            if (positions[file] < perFile.get(file).size()) {
+                heads.offer(file);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Follow a growing log file, like tail -F.
+     *
+     * The returned follower is idle until poll() is called, typically from a scheduled task.
+     * Each poll parses only the bytes appended since the previous one.
+     *
+     * @param logFile the log file to follow; it does not need to exist yet
+     * @return a follower that must be closed when no longer needed
+     */
+    public LogFollower follow(Path logFile) {
+        return new LogFollower(Objects.requireNonNull(logFile, "Log file cannot be null"));
+    }
+
+    /**
+     * A channel opened on a file together with the file key it was opened for
+     */
+    record OpenedFile(FileChannel channel, Object fileKey) {}
+
+    /**
+     * An I/O operation on a path, so opening and statting can be substituted in tests
+     */
+    @FunctionalInterface
+    interface PathOperation<T> {
+        T apply(Path path) throws IOException;
+    }
+
+    /**
+     * Open a file and record the key of the file actually opened.
+     *
+     * The path is statted before and after opening: if a rename-rotation swapped the file in
+     * between, the keys differ, the channel (possibly on the old file) is closed and the open
+     * is retried. Whenever no channel is returned, the one opened has been closed.
+     *
+     * @return the channel and its file key, or null if the file is missing or keeps changing
+     */
+    static OpenedFile openStable(Path file, PathOperation<FileChannel> opener, PathOperation<Object> fileKeyOf)
+            throws IOException {
+        for (int attempt = 0; attempt < FOLLOW_OPEN_ATTEMPTS; attempt++) {
+            Object before;
+            FileChannel opened;
+            try {
+                before = fileKeyOf.apply(file);
+                opened = opener.apply(file);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+
+            boolean keep = false;
+            try {
+                Object after = fileKeyOf.apply(file);
+                if (Objects.equals(before, after)) {
+                    keep = true;
+                    return new OpenedFile(opened, after);
+                }
+            } catch (NoSuchFileException e) {
+                return null;
+            } finally {
+                if (!keep) {
+                    opened.close();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Object fileKey(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * Incrementally maintained ErrorSummary over a log file that is being appended to.
+     *
+     * - Appended bytes are read through a FileChannel from the last offset; a trailing
+     *   line without its newline is kept until the rest of it arrives.
+     * - If the file shrinks (copy-truncate rotation) reading restarts at offset 0.
+     * - If the path points to a new file (rename rotation) the old file is drained first,
+     *   then the new one is read from the start.
+     *
+     * Counts accumulate across rotations, so the summary covers everything seen since
+     * following started. High-severity errors are kept sorted by binary insertion, which is
+     * close to O(log n) per message for the nearly sorted timestamps of an appended log.
+     */
+    public final class LogFollower implements AutoCloseable {
+        private final Path logFile;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(FOLLOW_READ_BUFFER_BYTES);
+        private final List<LogMessage.ValidMessage> highSeverity = new ArrayList<>();
+        private byte[] partialLine = new byte[256];
+        private int partialLength;
+        private FileChannel channel;
+        private Object fileKey;
+        private long position;
+        private long totalMessages;
+        private long totalErrors;
+
+        private LogFollower(Path logFile) {
+            this.logFile = logFile;
+        }
+
+        /**
+         * Read and parse everything appended since the last poll
+         *
+         * @return the updated summary
+         * @throws IOException if the log file cannot be read
+         */
+        public synchronized ErrorSummary poll() throws IOException {
+            if (channel == null && !open()) {
+                return summary();
+            }
+
+            if (channel.size() < position) {
+                // Truncated in place: the partial line belonged to the discarded content
+                position = 0;
+                partialLength = 0;
+            }
+            readAppended();
+
+            if (isRotated()) {
+                flushPartialLine();
+                channel.close();
+                channel = null;
+                if (open()) {
+                    readAppended();
+                }
+            }
+            return summary();
+        }
+
+        /**
+         * Current summary, without reading the file
+         */
+        public synchronized ErrorSummary summary() {
+            return new ErrorSummary(totalMessages, totalErrors, highSeverity.size(),
+                    highSeverity.stream().map(LogMessage.ValidMessage::message).toList());
+        }
+
+        /**
+         * High-severity errors seen so far, sorted by timestamp
+         */
+        public synchronized List<LogMessage.ValidMessage> highSeverityErrors() {
+            return List.copyOf(highSeverity);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        private boolean open() throws IOException {
+            OpenedFile opened = openStable(logFile, file -> FileChannel.open(file, StandardOpenOption.READ), Exercise5::fileKey);
+            if (opened == null) {
+                return false;
+            }
+            channel = opened.channel();
+            fileKey = opened.fileKey();
+            position = 0;
+            return true;
+        }
+
+        private boolean isRotated() throws IOException {
+            try {
+                Object currentKey = fileKey(logFile);
+                return fileKey != null && !fileKey.equals(currentKey);
+            } catch (NoSuchFileException e) {
+                // Renamed away and not recreated yet: keep following the old file
+                return false;
+            }
+        }
+
+        private void readAppended() throws IOException {
+            long size = channel.size();
+            while (position < size) {
+                readBuffer.clear();
+                int read = channel.read(readBuffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                position += read;
+                for (int i = 0; i < read; i++) {
+                    byte b = readBuffer.get(i);
+                    if (b == '\n') {
+                        flushPartialLine();
+                    } else {
+                        appendToPartialLine(b);
+                    }
+                }
+            }
+        }
+
+        private void appendToPartialLine(byte b) {
+            if (partialLength == partialLine.length) {
+                partialLine = Arrays.copyOf(partialLine, partialLength * 2);
+            }
+            partialLine[partialLength++] = b;
+        }
+
+        private void flushPartialLine() {
+            String line = new String(partialLine, 0, partialLength, StandardCharsets.UTF_8);
+            partialLength = 0;
+            if (!line.trim().isEmpty()) {
+                accept(parseOperations.parseMessage(line));
+            }
+        }
+
+        private void accept(LogMessage message) {
+            totalMessages++;
+            if (message instanceof LogMessage.ValidMessage validMsg
+                    && validMsg.messageType() instanceof MessageType.Error) {
+                totalErrors++;
+                if (isHighSeverityError(validMsg)) {
+                    highSeverity.add(insertionPoint(validMsg.timestamp()), validMsg);
+                }
+            }
+        }
+
+        /**
+         * Index after the last message with timestamp <= the given one, so ties keep log order
+         */
+        private int insertionPoint(int timestamp) {
+            int low = 0;
+            int high = highSeverity.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (highSeverity.get(middle).timestamp() <= timestamp) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
 }
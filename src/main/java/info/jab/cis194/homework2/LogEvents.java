@@ -0,0 +1,220 @@
+package info.jab.cis194.homework2;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the log analyzer hot paths.
+ *
+ * Each event wraps one call of Exercise1.parse, Exercise3.build or Exercise5.whatWentWrong
+ * and carries its duration plus the sizes needed to derive throughput (lines or messages
+ * per second), the MessageCounts of the parsed batch, bytes allocated by the calling
+ * thread, and the shape of the built tree.
+ *
+ * While no recording has the events enabled, start() and finish() reduce to an isEnabled()
+ * check, so the instrumentation can stay on in production. Record with, for example:
+ * java -XX:StartFlightRecording:filename=analyzer.jfr ...
+ */
+public final class LogEvents {
+
+    private LogEvents() {
+    }
+
+    /**
+     * Emitted by Exercise1.parse
+     */
+    @Name("info.jab.cis194.homework2.Parse")
+    @Label("Log Parse")
+    @Category({"CIS-194", "Log Analyzer"})
+    @Description("Parsing of a complete log into LogMessages")
+    @StackTrace(false)
+    public static final class Parse extends Event {
+
+        @Label("Characters")
+        private long characters;
+
+        @Label("Lines")
+        private long lines;
+
+        @Label("Info")
+        private long info;
+
+        @Label("Warning")
+        private long warning;
+
+        @Label("Error")
+        private long error;
+
+        @Label("Unknown")
+        private long unknown;
+
+        @Label("Allocated")
+        @DataAmount
+        private long allocated;
+
+        @Label("Allocated Per Line")
+        @DataAmount
+        private long allocatedPerLine;
+
+        private transient long allocationBaseline;
+
+        static Parse start() {
+            Parse event = new Parse();
+            if (event.isEnabled()) {
+                event.allocationBaseline = allocatedBytes();
+                event.begin();
+            }
+            return event;
+        }
+
+        /**
+         * Tally one parsed message; parse calls this from its own pass, and only while enabled
+         */
+        void count(LogMessage message) {
+            // instanceof rather than a pattern switch: with the latter, JFR no longer records the event
+            if (!(message instanceof LogMessage.ValidMessage valid)) {
+                unknown++;
+            } else if (valid.messageType() instanceof MessageType.Info) {
+                info++;
+            } else if (valid.messageType() instanceof MessageType.Warning) {
+                warning++;
+            } else {
+                error++;
+            }
+        }
+
+        void finish(String content, int lineCount) {
+            if (!isEnabled()) {
+                return;
+            }
+            end();
+            if (shouldCommit()) {
+                allocated = allocatedBytes() - allocationBaseline;
+                characters = content == null ? 0 : content.length();
+                lines = lineCount;
+                allocatedPerLine = lines == 0 ? 0 : allocated / lines;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Emitted by Exercise3.build
+     */
+    @Name("info.jab.cis194.homework2.Build")
+    @Label("MessageTree Build")
+    @Category({"CIS-194", "Log Analyzer"})
+    @Description("Construction of a MessageTree from parsed messages")
+    @StackTrace(false)
+    public static final class Build extends Event {
+
+        @Label("Messages")
+        private long messages;
+
+        @Label("Tree Size")
+        private int size;
+
+        @Label("Tree Height")
+        private int height;
+
+        @Label("Allocated")
+        @DataAmount
+        private long allocated;
+
+        private transient long allocationBaseline;
+
+        static Build start() {
+            Build event = new Build();
+            if (event.isEnabled()) {
+                event.allocationBaseline = allocatedBytes();
+                event.begin();
+            }
+            return event;
+        }
+
+        void finish(List<LogMessage> input, MessageTree tree) {
+            if (!isEnabled()) {
+                return;
+            }
+            end();
+            if (shouldCommit()) {
+                allocated = allocatedBytes() - allocationBaseline;
+                messages = input == null ? 0 : input.size();
+                size = tree.size();
+                height = tree.height();
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Emitted by Exercise5.whatWentWrong
+     */
+    @Name("info.jab.cis194.homework2.WhatWentWrong")
+    @Label("What Went Wrong")
+    @Category({"CIS-194", "Log Analyzer"})
+    @Description("Extraction of high-severity error messages")
+    @StackTrace(false)
+    public static final class WhatWentWrong extends Event {
+
+        @Label("Messages")
+        private long messages;
+
+        @Label("Severity Threshold")
+        private int severityThreshold;
+
+        @Label("Alerts")
+        private long alerts;
+
+        @Label("Allocated")
+        @DataAmount
+        private long allocated;
+
+        private transient long allocationBaseline;
+
+        static WhatWentWrong start() {
+            WhatWentWrong event = new WhatWentWrong();
+            if (event.isEnabled()) {
+                event.allocationBaseline = allocatedBytes();
+                event.begin();
+            }
+            return event;
+        }
+
+        void finish(List<LogMessage> input, int threshold, List<String> result) {
+            if (!isEnabled()) {
+                return;
+            }
+            end();
+            if (shouldCommit()) {
+                allocated = allocatedBytes() - allocationBaseline;
+                messages = input.size();
+                severityThreshold = threshold;
+                alerts = result.size();
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 when the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        return Allocation.THREADS instanceof com.sun.management.ThreadMXBean threads
+                ? Math.max(threads.getCurrentThreadAllocatedBytes(), 0)
+                : 0;
+    }
+
+    // Loaded on first use, i.e. only once a recording enables one of the events
+    private static final class Allocation {
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    }
+}
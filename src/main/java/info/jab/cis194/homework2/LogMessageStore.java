@@ -0,0 +1,380 @@
+package info.jab.cis194.homework2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Columnar, primitive-backed storage for parsed log messages.
+ *
+ * Instead of one ValidMessage record (plus its MessageType and String) per line,
+ * the store keeps one column per field:
+ * - int[] timestamps (-1 for Unknown messages)
+ * - byte[] type tags
+ * - int[] severities (0 unless the message is an Error)
+ * - a paged UTF-8 byte arena with long[] offsets for message text
+ *
+ * Messages are materialised on demand by get(int) and asList(), so existing
+ * List-based algorithms (Exercise3.build, Exercise5.whatWentWrong) run over the
+ * store unchanged while only short-lived views are allocated.
+ *
+ * Limits: a store holds at most MAX_MESSAGES (Integer.MAX_VALUE - 9) messages, since
+ * the columns are arrays indexed by int. Message text lives in 16 MiB pages addressed
+ * by long offsets, so its total size is bounded only by the heap; a message may span
+ * pages. Builders fail fast with an IllegalStateException when the message limit would
+ * be exceeded, instead of overflowing their growth arithmetic.
+ */
+public final class LogMessageStore {
+
+    private static final byte INFO = 0;
+    private static final byte WARNING = 1;
+    private static final byte ERROR = 2;
+    private static final byte UNKNOWN = 3;
+
+    /**
+     * Largest number of messages a store can hold (one int-indexed slot is kept for offsets)
+     */
+    public static final int MAX_MESSAGES = Integer.MAX_VALUE - 9;
+
+    /**
+     * Text pages hold 2^24 bytes (16 MiB)
+     */
+    private static final int DEFAULT_PAGE_BITS = 24;
+    private static final int MIN_PAGE_BYTES = 256;
+
+    private static final LogMessageStore EMPTY = new Builder().build();
+
+    private final int size;
+    private final int[] timestamps;
+    private final byte[] types;
+    private final int[] severities;
+    private final byte[][] textPages;
+    private final int pageBits;
+    private final long[] textOffsets;
+
+    private LogMessageStore(int size, int[] timestamps, byte[] types, int[] severities,
+                            byte[][] textPages, int pageBits, long[] textOffsets) {
+        this.size = size;
+        this.timestamps = timestamps;
+        this.types = types;
+        this.severities = severities;
+        this.textPages = textPages;
+        this.pageBits = pageBits;
+        this.textOffsets = textOffsets;
+    }
+
+    /**
+     * Factory method to create an empty store
+     */
+    public static LogMessageStore empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Copy a list of messages into columnar form
+     */
+    public static LogMessageStore of(List<? extends LogMessage> messages) {
+        Builder builder = new Builder();
+        messages.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Consume a stream of messages (e.g. from Exercise1.parseLines) into columnar form
+     */
+    public static LogMessageStore from(Stream<? extends LogMessage> messages) {
+        return messages.collect(collector());
+    }
+
+    /**
+     * Collector appending messages to a Builder, usable on sequential and parallel streams
+     */
+    public static Collector<LogMessage, Builder, LogMessageStore> collector() {
+        return Collector.of(Builder::new, Builder::add, Builder::addAll, Builder::build);
+    }
+
+    /**
+     * Number of messages in the store
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Check if the message at index was parsed successfully
+     */
+    public boolean isValid(int index) {
+        return type(index) != UNKNOWN;
+    }
+
+    /**
+     * Check if the message at index is an error message
+     */
+    public boolean isError(int index) {
+        return type(index) == ERROR;
+    }
+
+    /**
+     * Check if the message at index is an error with severity >= threshold
+     */
+    public boolean isHighSeverityError(int index, int threshold) {
+        return isError(index) && severities[index] >= threshold;
+    }
+
+    /**
+     * Timestamp of the message at index, or -1 for an Unknown message
+     */
+    public int timestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    /**
+     * Severity of the message at index if it is an error, otherwise 0
+     */
+    public int severity(int index) {
+        checkIndex(index);
+        return severities[index];
+    }
+
+    /**
+     * Message text at index (the original line for Unknown messages)
+     */
+    public String message(int index) {
+        checkIndex(index);
+        long start = textOffsets[index];
+        int length = (int) (textOffsets[index + 1] - start);
+        if (length == 0) {
+            return "";
+        }
+        byte[] page = textPages[(int) (start >>> pageBits)];
+        int offset = (int) (start & ((1L << pageBits) - 1));
+        if (offset + length <= page.length) {
+            return new String(page, offset, length, StandardCharsets.UTF_8);
+        }
+        // The message spans pages: gather it into one array first
+        byte[] bytes = new byte[length];
+        for (int copied = 0; copied < length; ) {
+            long position = start + copied;
+            byte[] source = textPages[(int) (position >>> pageBits)];
+            int from = (int) (position & ((1L << pageBits) - 1));
+            int chunk = Math.min(length - copied, source.length - from);
+            System.arraycopy(source, from, bytes, copied, chunk);
+            copied += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Materialise the message at index
+     */
+    public LogMessage get(int index) {
+        return switch (type(index)) {
+            case INFO -> LogMessage.validMessage(MessageType.INFO, timestamps[index], message(index));
+            case WARNING -> LogMessage.validMessage(MessageType.WARNING, timestamps[index], message(index));
+            case ERROR -> LogMessage.validMessage(MessageType.error(severities[index]), timestamps[index], message(index));
+            default -> LogMessage.unknown(message(index));
+        };
+    }
+
+    /**
+     * Read-only List view materialising each message on access
+     */
+    public List<LogMessage> asList() {
+        return new ListView();
+    }
+
+    /**
+     * Count messages by type using only the type column
+     */
+    public Exercise1.MessageCounts counts() {
+        long[] counts = new long[4];
+        for (int i = 0; i < size; i++) {
+            counts[types[i]]++;
+        }
+        return new Exercise1.MessageCounts(counts[INFO], counts[WARNING], counts[ERROR], counts[UNKNOWN]);
+    }
+
+    /**
+     * Number of bytes used by the UTF-8 text arena
+     */
+    public long textBytes() {
+        return textOffsets[size];
+    }
+
+    private byte type(int index) {
+        checkIndex(index);
+        return types[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private final class ListView extends AbstractList<LogMessage> implements RandomAccess {
+        @Override
+        public LogMessage get(int index) {
+            return LogMessageStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Growable, single-threaded builder for a LogMessageStore
+     */
+    public static final class Builder {
+        private final int pageBits;
+        private final int pageBytes;
+        private int size;
+        private int[] timestamps = new int[16];
+        private byte[] types = new byte[16];
+        private int[] severities = new int[16];
+        private byte[][] textPages = new byte[1][MIN_PAGE_BYTES];
+        private long textLength;
+        private long[] textOffsets = new long[17];
+
+        public Builder() {
+            this(DEFAULT_PAGE_BITS);
+        }
+
+        /**
+         * Builder with 2^pageBits-byte text pages, so tests can cross page boundaries cheaply
+         */
+        Builder(int pageBits) {
+            if (pageBits < 8 || pageBits > 30) {
+                throw new IllegalArgumentException("Page bits must be between 8 and 30");
+            }
+            this.pageBits = pageBits;
+            this.pageBytes = 1 << pageBits;
+        }
+
+        /**
+         * Append a message to the store being built
+         */
+        public Builder add(LogMessage message) {
+            switch (message) {
+                case LogMessage.ValidMessage valid -> {
+                    switch (valid.messageType()) {
+                        case MessageType.Info info -> append(INFO, valid.timestamp(), 0, valid.message());
+                        case MessageType.Warning warning -> append(WARNING, valid.timestamp(), 0, valid.message());
+                        case MessageType.Error error -> append(ERROR, valid.timestamp(), error.severity(), valid.message());
+                    }
+                }
+                case LogMessage.Unknown unknown -> append(UNKNOWN, -1, 0, unknown.originalMessage());
+            }
+            return this;
+        }
+
+        /**
+         * Append every message of another builder, keeping their order
+         */
+        public Builder addAll(Builder other) {
+            ensureCapacity((long) size + other.size);
+            long base = textLength;
+            for (int page = 0; page < other.textPages.length && (long) page * other.pageBytes < other.textLength; page++) {
+                int used = (int) Math.min(other.pageBytes, other.textLength - (long) page * other.pageBytes);
+                appendText(other.textPages[page], used);
+            }
+
+            System.arraycopy(other.timestamps, 0, timestamps, size, other.size);
+            System.arraycopy(other.types, 0, types, size, other.size);
+            System.arraycopy(other.severities, 0, severities, size, other.size);
+            for (int i = 1; i <= other.size; i++) {
+                textOffsets[size + i] = base + other.textOffsets[i];
+            }
+            size += other.size;
+            return this;
+        }
+
+        /**
+         * Create the store, trimming the columns and the last text page to their final size
+         */
+        public LogMessageStore build() {
+            int pages = (int) ((textLength + pageBytes - 1) >>> pageBits);
+            byte[][] trimmedPages = Arrays.copyOf(textPages, pages);
+            if (pages > 0) {
+                int used = (int) (textLength - ((long) (pages - 1) << pageBits));
+                // Only the last page can still be written to by this builder, so it is copied
+                trimmedPages[pages - 1] = Arrays.copyOf(trimmedPages[pages - 1], used);
+            }
+            return new LogMessageStore(
+                size,
+                Arrays.copyOf(timestamps, size),
+                Arrays.copyOf(types, size),
+                Arrays.copyOf(severities, size),
+                trimmedPages,
+                pageBits,
+                Arrays.copyOf(textOffsets, size + 1));
+        }
+
+        private void append(byte type, int timestamp, int severity, String message) {
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(size + 1L);
+            appendText(bytes, bytes.length);
+
+            timestamps[size] = timestamp;
+            types[size] = type;
+            severities[size] = severity;
+            textOffsets[size + 1] = textLength;
+            size++;
+        }
+
+        /**
+         * Copy bytes[0, length) to the end of the text, filling the last page before opening a new one
+         */
+        private void appendText(byte[] bytes, int length) {
+            int copied = 0;
+            while (copied < length) {
+                int page = (int) (textLength >>> pageBits);
+                int offset = (int) (textLength & (pageBytes - 1));
+                int chunk = Math.min(length - copied, pageBytes - offset);
+                ensurePage(page, offset + chunk);
+                System.arraycopy(bytes, copied, textPages[page], offset, chunk);
+                copied += chunk;
+                textLength += chunk;
+            }
+        }
+
+        /**
+         * Make page hold at least required bytes; pages double from MIN_PAGE_BYTES up to pageBytes
+         */
+        private void ensurePage(int page, int required) {
+            if (page >= textPages.length) {
+                textPages = Arrays.copyOf(textPages, Math.max(page + 1, textPages.length * 2));
+            }
+            byte[] current = textPages[page];
+            if (current == null) {
+                textPages[page] = new byte[Math.min(pageBytes, Math.max(required, MIN_PAGE_BYTES))];
+            } else if (current.length < required) {
+                textPages[page] = Arrays.copyOf(current, Math.min(pageBytes, Math.max(required, current.length * 2)));
+            }
+        }
+
+        private void ensureCapacity(long required) {
+            if (required > MAX_MESSAGES) {
+                throw new IllegalStateException("A LogMessageStore holds at most " + MAX_MESSAGES + " messages");
+            }
+            if (required > timestamps.length) {
+                int capacity = (int) Math.min(MAX_MESSAGES, Math.max(required, timestamps.length * 2L));
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                types = Arrays.copyOf(types, capacity);
+                severities = Arrays.copyOf(severities, capacity);
+                textOffsets = Arrays.copyOf(textOffsets, capacity + 1);
+            }
+        }
+    }
+}
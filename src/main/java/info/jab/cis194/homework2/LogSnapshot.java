@@ -0,0 +1,301 @@
+package info.jab.cis194.homework2;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary snapshot of parsed log messages, so a restart can skip re-parsing text logs.
+ *
+ * Layout (big-endian):
+ * - header: magic "CLOG", version byte, flags byte, int message count
+ * - one record per message:
+ *   - type byte (0 Info, 1 Warning, 2 Error, 3 Unknown)
+ *   - varint severity (Error only)
+ *   - zigzag varint delta to the previous valid timestamp (all but Unknown)
+ *   - varint body length followed by the UTF-8 body
+ *
+ * The SORTED flag marks a snapshot of a MessageTree, whose messages are written in order.
+ * readTree then rebuilds the same in-order sequence with a single linear pass
+ * (Exercise3.buildFromSorted) instead of sorting again. List snapshots never carry the flag,
+ * even when already in timestamp order, so their messages with equal timestamps are
+ * ordered by Exercise3.buildBulk exactly as Exercise3.build would order them.
+ *
+ * Snapshots are read through memory-mapped windows of at most 1 GiB that are re-mapped
+ * whenever a record crosses the end of the current window, so their size is not limited
+ * by the 2 GiB reach of a single MappedByteBuffer.
+ */
+public final class LogSnapshot {
+
+    private static final int MAGIC = 0x434C4F47; // "CLOG"
+    private static final byte VERSION = 1;
+    private static final byte SORTED = 1;
+    private static final int HEADER_BYTES = 10;
+    private static final int WRITE_BUFFER_BYTES = 64 << 10;
+    private static final int DEFAULT_WINDOW_BYTES = 1 << 30;
+    // type byte plus up to three 5-byte varints: severity, timestamp delta, body length
+    private static final int MAX_RECORD_HEADER_BYTES = 1 + 5 + 5 + 5;
+
+    private static final byte INFO = 0;
+    private static final byte WARNING = 1;
+    private static final byte ERROR = 2;
+    private static final byte UNKNOWN = 3;
+
+    private LogSnapshot() {
+    }
+
+    /**
+     * Snapshot the messages of a tree in timestamp order, e.g. right after Exercise3.build
+     */
+    public static void write(Path file, MessageTree tree) throws IOException {
+        write(file, tree.size(), tree, SORTED);
+    }
+
+    /**
+     * Snapshot a list of messages in list order, including Unknown messages
+     */
+    public static void write(Path file, List<? extends LogMessage> messages) throws IOException {
+        write(file, messages.size(), messages, (byte) 0);
+    }
+
+    /**
+     * Load every message of a snapshot, in the order they were written
+     */
+    public static List<LogMessage> readMessages(Path file) throws IOException {
+        return read(file, DEFAULT_WINDOW_BYTES).messages();
+    }
+
+    /**
+     * Load every message through windows of windowBytes bytes, so tests can cross window boundaries cheaply
+     */
+    static List<LogMessage> readMessages(Path file, int windowBytes) throws IOException {
+        if (windowBytes < MAX_RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Window must hold at least " + MAX_RECORD_HEADER_BYTES + " bytes");
+        }
+        return read(file, windowBytes).messages();
+    }
+
+    /**
+     * Load a snapshot and rebuild a balanced MessageTree from its valid messages.
+     *
+     * Tree snapshots are rebuilt in linear time; list snapshots go through Exercise3.buildBulk.
+     */
+    public static MessageTree readTree(Path file) throws IOException {
+        Contents contents = read(file, DEFAULT_WINDOW_BYTES);
+        Exercise3 builder = new Exercise3();
+        if (!contents.sorted()) {
+            return builder.buildBulk(contents.messages());
+        }
+        List<LogMessage.ValidMessage> valid = new ArrayList<>(contents.messages().size());
+        for (LogMessage message : contents.messages()) {
+            if (message instanceof LogMessage.ValidMessage validMessage) {
+                valid.add(validMessage);
+            }
+        }
+        return builder.buildFromSorted(valid);
+    }
+
+    private record Contents(List<LogMessage> messages, boolean sorted) {}
+
+    private static void write(Path file, int count, Iterable<? extends LogMessage> messages, byte flags) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            buffer.putInt(MAGIC).put(VERSION).put(flags).putInt(count);
+
+            int previous = 0;
+            for (LogMessage message : messages) {
+                byte[] body;
+                switch (message) {
+                    case LogMessage.ValidMessage valid -> {
+                        body = valid.message().getBytes(StandardCharsets.UTF_8);
+                        ensureRemaining(channel, buffer, 1 + 5 + 5 + 5);
+                        switch (valid.messageType()) {
+                            case MessageType.Info info -> buffer.put(INFO);
+                            case MessageType.Warning warning -> buffer.put(WARNING);
+                            case MessageType.Error error -> putVarint(buffer.put(ERROR), error.severity());
+                        }
+                        int delta = valid.timestamp() - previous;
+                        previous = valid.timestamp();
+                        putVarint(buffer, (delta << 1) ^ (delta >> 31));
+                    }
+                    case LogMessage.Unknown unknown -> {
+                        body = unknown.originalMessage().getBytes(StandardCharsets.UTF_8);
+                        ensureRemaining(channel, buffer, 1 + 5);
+                        buffer.put(UNKNOWN);
+                    }
+                }
+                putVarint(buffer, body.length);
+                if (body.length <= buffer.remaining()) {
+                    buffer.put(body);
+                } else {
+                    flush(channel, buffer);
+                    writeFully(channel, ByteBuffer.wrap(body));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static Contents read(Path file, int windowBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput input = new MappedInput(channel, windowBytes);
+            try {
+                if (input.remaining() < HEADER_BYTES) {
+                    throw new IOException("Not a log snapshot: " + file);
+                }
+                ByteBuffer header = input.require(HEADER_BYTES);
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Not a log snapshot: " + file);
+                }
+                byte version = header.get();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported snapshot version " + version + ": " + file);
+                }
+                boolean sorted = (header.get() & SORTED) != 0;
+                int count = header.getInt();
+                if (count < 0 || count > input.remaining() / 2) {
+                    throw new IOException("Corrupt snapshot message count " + count + ": " + file);
+                }
+
+                List<LogMessage> messages = new ArrayList<>(count);
+                byte[] scratch = new byte[256];
+                int previous = 0;
+                for (int i = 0; i < count; i++) {
+                    ByteBuffer buffer = input.require(MAX_RECORD_HEADER_BYTES);
+                    byte type = buffer.get();
+                    int severity = type == ERROR ? getVarint(buffer) : 0;
+                    if (type != UNKNOWN) {
+                        int zigzag = getVarint(buffer);
+                        previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                    }
+                    int length = getVarint(buffer);
+                    if (length < 0 || length > input.remaining()) {
+                        throw new IOException("Corrupt snapshot body length " + length + ": " + file);
+                    }
+                    if (length > scratch.length) {
+                        scratch = new byte[Math.max(length, scratch.length * 2)];
+                    }
+                    input.get(scratch, length);
+                    String body = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                    messages.add(switch (type) {
+                        case INFO -> LogMessage.validMessage(MessageType.INFO, previous, body);
+                        case WARNING -> LogMessage.validMessage(MessageType.WARNING, previous, body);
+                        case ERROR -> LogMessage.validMessage(MessageType.error(severity), previous, body);
+                        case UNKNOWN -> LogMessage.unknown(body);
+                        default -> throw new IOException("Corrupt snapshot message type " + type + ": " + file);
+                    });
+                }
+                if (input.remaining() > 0) {
+                    throw new IOException("Trailing bytes after " + count + " messages: " + file);
+                }
+                return new Contents(messages, sorted);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Truncated or corrupt snapshot: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Sequential reader over a file mapped one window at a time.
+     *
+     * A window starts at the current read position and is re-mapped from there when a read
+     * needs more bytes than it has left, so records may straddle window boundaries.
+     */
+    private static final class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private final int windowBytes;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedInput(FileChannel channel, int windowBytes) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowBytes = windowBytes;
+            map(0);
+        }
+
+        long remaining() {
+            return size - windowStart - window.position();
+        }
+
+        /**
+         * The current window, re-mapped if needed so it holds at least the given number of bytes or the rest of the file
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (window.remaining() < bytes && window.remaining() < remaining()) {
+                map(windowStart + window.position());
+            }
+            return window;
+        }
+
+        /**
+         * Copy the next length bytes into the start of target, across as many windows as needed
+         */
+        void get(byte[] target, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                if (!window.hasRemaining()) {
+                    if (remaining() == 0) {
+                        throw new BufferUnderflowException();
+                    }
+                    map(windowStart + window.position());
+                }
+                int chunk = Math.min(length - offset, window.remaining());
+                window.get(target, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        private void map(long position) throws IOException {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, size - position));
+        }
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -10,8 +10,15 @@ package info.jab.cis194.homework2;
  *
  * The tree is ordered by timestamp: left < current < right
  * Unknown messages are not stored in the tree.
+ *
+ * Every Node records its height and size, so height() and size() are O(1) and balanced
+ * insertion (Exercise2.insertBalanced) can rebalance without traversing subtrees.
+ *
+ * The tree is Iterable in timestamp order: iterator(), spliterator() and stream() walk it
+ * with an explicit stack instead of recursion or intermediate lists.
  */
-public sealed interface MessageTree permits MessageTree.Leaf, MessageTree.Node {
+public sealed interface MessageTree extends Iterable<LogMessage.ValidMessage>
+        permits MessageTree.Leaf, MessageTree.Node {
 
     /**
      * Empty tree (leaf node)
@@ -39,9 +46,9 @@ public sealed interface MessageTree permits MessageTree.Leaf, MessageTree.Node {
     }
 
     /**
-     * Tree node with left subtree, log message, and right subtree
+     * Tree node with left subtree, log message, right subtree, and the height and size of the node
      */
-    record Node(MessageTree left, LogMessage.ValidMessage message, MessageTree right)
+    record Node(MessageTree left, LogMessage.ValidMessage message, MessageTree right, int height, int size)
             implements MessageTree {
 
         public Node {
@@ -54,21 +61,32 @@ public sealed interface MessageTree permits MessageTree.Leaf, MessageTree.Node {
             if (right == null) {
                 right = new Leaf();
             }
+            if (height != heightOf(left, right)) {
+                throw new IllegalArgumentException("Height must be one more than the tallest subtree");
+            }
+            if (size != sizeOf(left, right)) {
+                throw new IllegalArgumentException("Size must be one more than the sizes of both subtrees");
+            }
         }
 
-        @Override
-        public String toString() {
-            return "Node(" + left + ", " + message + ", " + right + ")";
+        /**
+         * Create a node, deriving its height and size from the subtrees
+         */
+        public Node(MessageTree left, LogMessage.ValidMessage message, MessageTree right) {
+            this(left, message, right, heightOf(left, right), sizeOf(left, right));
         }
 
-        @Override
-        public int size() {
-            return 1 + left.size() + right.size();
+        private static int heightOf(MessageTree left, MessageTree right) {
+            return 1 + Math.max(left == null ? 0 : left.height(), right == null ? 0 : right.height());
+        }
+
+        private static int sizeOf(MessageTree left, MessageTree right) {
+            return 1 + (left == null ? 0 : left.size()) + (right == null ? 0 : right.size());
         }
 
         @Override
-        public int height() {
-            return 1 + Math.max(left.height(), right.height());
+        public String toString() {
+            return "Node(" + left + ", " + message + ", " + right + ")";
         }
 
         @Override
@@ -116,6 +134,36 @@ public sealed interface MessageTree permits MessageTree.Leaf, MessageTree.Node {
      */
     boolean isEmpty();
 
+    /**
+     * Iterate the messages in timestamp order (in-order traversal)
+     */
+    @Override
+    default java.util.Iterator<LogMessage.ValidMessage> iterator() {
+        return new MessageTreeSpliterator(this);
+    }
+
+    /**
+     * In-order spliterator: ORDERED, SIZED and splittable at subtrees
+     */
+    @Override
+    default java.util.Spliterator<LogMessage.ValidMessage> spliterator() {
+        return new MessageTreeSpliterator(this);
+    }
+
+    /**
+     * Stream the messages in timestamp order without materialising a list
+     */
+    default java.util.stream.Stream<LogMessage.ValidMessage> stream() {
+        return java.util.stream.StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Parallel stream of the messages in timestamp order, split at subtrees
+     */
+    default java.util.stream.Stream<LogMessage.ValidMessage> parallelStream() {
+        return java.util.stream.StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * Check if this tree contains a message with the given timestamp
      */
@@ -0,0 +1,125 @@
+package info.jab.cis194.homework2;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Stack-based in-order cursor over a MessageTree, usable as an Iterator or a Spliterator.
+ *
+ * The remaining sequence is inOrder(pending) followed, for each node on the stack from the
+ * top down, by that node's message and inOrder(node.right()). The stack only ever holds one
+ * root-to-node path, so it is a plain array sized by the tree height and traversal never
+ * recurses nor allocates per element.
+ *
+ * trySplit hands off a whole subtree as the prefix (pending.left plus pending, or the top
+ * of the stack with its right subtree), so parallel streams split at subtrees and every
+ * part knows its exact size from the cached Node sizes.
+ */
+final class MessageTreeSpliterator implements Iterator<LogMessage.ValidMessage>, Spliterator<LogMessage.ValidMessage> {
+
+    private MessageTree pending;
+    private MessageTree.Node[] stack;
+    private int depth;
+    private long remaining;
+
+    MessageTreeSpliterator(MessageTree root) {
+        this(root, new MessageTree.Node[root.height()], 0, root.size());
+    }
+
+    private MessageTreeSpliterator(MessageTree pending, MessageTree.Node[] stack, int depth, long remaining) {
+        this.pending = pending;
+        this.stack = stack;
+        this.depth = depth;
+        this.remaining = remaining;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public LogMessage.ValidMessage next() {
+        if (remaining == 0) {
+            throw new NoSuchElementException();
+        }
+        descendLeft();
+        MessageTree.Node node = stack[--depth];
+        stack[depth] = null;
+        pending = node.right();
+        remaining--;
+        return node.message();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super LogMessage.ValidMessage> action) {
+        if (remaining == 0) {
+            return false;
+        }
+        action.accept(next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super LogMessage.ValidMessage> action) {
+        while (remaining > 0) {
+            action.accept(next());
+        }
+    }
+
+    @Override
+    public Spliterator<LogMessage.ValidMessage> trySplit() {
+        if (pending instanceof MessageTree.Node node) {
+            if (node.left().isEmpty()) {
+                return null;
+            }
+            // Prefix: node.left() followed by node itself; this keeps node.right() and the stack
+            MessageTree.Node[] prefixStack = new MessageTree.Node[node.height()];
+            prefixStack[0] = node;
+            long prefixSize = node.left().size() + 1L;
+            pending = node.right();
+            remaining -= prefixSize;
+            return new MessageTreeSpliterator(node.left(), prefixStack, 1, prefixSize);
+        }
+        if (depth > 1) {
+            // Prefix: the top of the stack and its right subtree; this keeps the ancestors below it
+            MessageTree.Node node = stack[--depth];
+            stack[depth] = null;
+            MessageTree.Node[] prefixStack = new MessageTree.Node[node.height()];
+            prefixStack[0] = node;
+            long prefixSize = node.right().size() + 1L;
+            remaining -= prefixSize;
+            return new MessageTreeSpliterator(MessageTree.leaf(), prefixStack, 1, prefixSize);
+        }
+        if (depth == 1 && !stack[0].right().isEmpty()) {
+            // Prefix: the last ancestor alone, so its right subtree becomes splittable here
+            MessageTree.Node node = stack[--depth];
+            stack[depth] = null;
+            pending = node.right();
+            remaining--;
+            return new MessageTreeSpliterator(MessageTree.leaf(), new MessageTree.Node[] {node}, 1, 1);
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+
+    private void descendLeft() {
+        MessageTree tree = pending;
+        while (tree instanceof MessageTree.Node node) {
+            stack[depth++] = node;
+            tree = node.left();
+        }
+        pending = tree;
+    }
+}
@@ -35,6 +35,11 @@ public sealed interface MessageType permits MessageType.Info, MessageType.Warnin
      * Error message type with severity level
      */
     record Error(int severity) implements MessageType {
+        private static final int MAX_CACHED_SEVERITY = 100;
+        private static final Error[] CACHE = java.util.stream.IntStream.rangeClosed(0, MAX_CACHED_SEVERITY)
+                .mapToObj(severity -> severity == 0 ? null : new Error(severity))
+                .toArray(Error[]::new);
+
         public Error {
             if (severity < 1) {
                 throw new IllegalArgumentException("Error severity must be positive");
@@ -52,9 +57,16 @@ public sealed interface MessageType permits MessageType.Info, MessageType.Warnin
     MessageType.Warning WARNING = new Warning();
 
     /**
-     * Factory method to create an Error with the specified severity
+     * Factory method for an Error with the specified severity.
+     *
+     * Severities 1-100 (the range used by the homework logs) return a shared canonical
+     * instance, so parsing does not allocate a MessageType per line; other severities
+     * are validated and allocated as usual.
      */
     static MessageType.Error error(int severity) {
+        if (severity >= 1 && severity <= Error.MAX_CACHED_SEVERITY) {
+            return Error.CACHE[severity];
+        }
         return new Error(severity);
     }
 }
@@ -1,7 +1,15 @@
 package info.jab.cis194.homework3;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * Exercise 1: Skips Function
@@ -24,6 +32,12 @@ public class Exercise1 {
      * Returns a list of lists where the nth list contains every nth element
      * from the input list, starting from the nth position (1-indexed).
      *
+     * The result and every inner list are read-only views over the input: the nth list
+     * reads input.get(n - 1 + k * n) on access, so building the result is O(1) and nothing
+     * is copied or boxed beyond what the input already holds. Random-access inputs are read in
+     * place, so the views, including the number of strides, reflect later changes to the input.
+     * Other inputs are copied once into an array-backed list and the views do not see changes.
+     *
      * @param <T> the type of elements in the list
      * @param input the input list
      * @return a list of lists containing the skipped elements
@@ -34,25 +48,262 @@ public class Exercise1 {
             throw new IllegalArgumentException("Input list cannot be null");
         }
 
-        return input.isEmpty()
-            ? List.of()
-            : IntStream.range(0, input.size())
-                .mapToObj(i -> takeEveryNth(input, i + 1, i))
-                .toList();
+        List<T> source = input instanceof RandomAccess ? input : new ArrayList<>(input);
+        return new StrideList<>(source::size, step -> new Strided<>(source, step - 1, step));
     }
 
     /**
-     * Takes every nth element from the input list starting at the given offset.
+     * skips specialised for int arrays: the nth stride views every nth value of input
      *
-     * @param <T> the type of elements in the list
-     * @param input the input list
-     * @param step the step size (how many elements to skip)
-     * @param startIndex the starting index
-     * @return a list containing every nth element
-     */
-    private static <T> List<T> takeEveryNth(List<T> input, int step, int startIndex) {
-        return IntStream.iterate(startIndex, i -> i < input.size(), i -> i + step)
-            .mapToObj(input::get)
-            .toList();
+     * @param input the input array, not copied
+     * @return lazy list of strides, one per element of input
+     * @throws IllegalArgumentException if input is null
+     */
+    public static List<IntStride> skips(int[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return new StrideList<>(() -> input.length, step -> new IntStride(input, step - 1, step));
+    }
+
+    /**
+     * skips specialised for long arrays: the nth stride views every nth value of input
+     *
+     * @param input the input array, not copied
+     * @return lazy list of strides, one per element of input
+     * @throws IllegalArgumentException if input is null
+     */
+    public static List<LongStride> skips(long[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return new StrideList<>(() -> input.length, step -> new LongStride(input, step - 1, step));
+    }
+
+    /**
+     * Every step-th value of a primitive array from start, read in place.
+     *
+     * Holds the index arithmetic, equality and hashing shared by IntStride and LongStride:
+     * two strides of the same kind are equal when they hold the same values in the same order,
+     * and hash like Arrays.hashCode of those values. Strides are only created by skips.
+     */
+    public abstract static sealed class ArrayStride permits IntStride, LongStride {
+        private final int start;
+        private final int step;
+
+        ArrayStride(int start, int step) {
+            if (start < 0 || step < 1) {
+                throw new IllegalArgumentException("Stride needs start >= 0 and step >= 1, got " + start + " and " + step);
+            }
+            this.start = start;
+            this.step = step;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int step() {
+            return step;
+        }
+
+        public int size() {
+            return strideSize(sourceLength(), start, step);
+        }
+
+        /**
+         * Position in the source array of the index-th value of the stride
+         */
+        final int sourceIndex(int index) {
+            return start + Objects.checkIndex(index, size()) * step;
+        }
+
+        abstract int sourceLength();
+
+        abstract boolean sameValue(int sourceIndex, ArrayStride other, int otherSourceIndex);
+
+        abstract int hashValue(int sourceIndex);
+
+        @Override
+        public final boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ArrayStride other = (ArrayStride) o;
+            int size = size();
+            if (size != other.size()) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!sameValue(start + i * step, other, other.start + i * other.step)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public final int hashCode() {
+            int hash = 1;
+            for (int i = 0, size = size(); i < size; i++) {
+                hash = 31 * hash + hashValue(start + i * step);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Every step-th value of an int array from start, read in place
+     */
+    public static final class IntStride extends ArrayStride {
+        private final int[] source;
+
+        IntStride(int[] source, int start, int step) {
+            super(start, step);
+            this.source = Objects.requireNonNull(source, "Source cannot be null");
+        }
+
+        public int[] source() {
+            return source;
+        }
+
+        public int get(int index) {
+            return source[sourceIndex(index)];
+        }
+
+        public IntStream stream() {
+            return IntStream.range(0, size()).map(i -> source[start() + i * step()]);
+        }
+
+        public int[] toArray() {
+            return stream().toArray();
+        }
+
+        @Override
+        int sourceLength() {
+            return source.length;
+        }
+
+        @Override
+        boolean sameValue(int sourceIndex, ArrayStride other, int otherSourceIndex) {
+            return source[sourceIndex] == ((IntStride) other).source[otherSourceIndex];
+        }
+
+        @Override
+        int hashValue(int sourceIndex) {
+            return source[sourceIndex];
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(toArray());
+        }
+    }
+
+    /**
+     * Every step-th value of a long array from start, read in place
+     */
+    public static final class LongStride extends ArrayStride {
+        private final long[] source;
+
+        LongStride(long[] source, int start, int step) {
+            super(start, step);
+            this.source = Objects.requireNonNull(source, "Source cannot be null");
+        }
+
+        public long[] source() {
+            return source;
+        }
+
+        public long get(int index) {
+            return source[sourceIndex(index)];
+        }
+
+        public LongStream stream() {
+            return IntStream.range(0, size()).mapToLong(i -> source[start() + i * step()]);
+        }
+
+        public long[] toArray() {
+            return stream().toArray();
+        }
+
+        @Override
+        int sourceLength() {
+            return source.length;
+        }
+
+        @Override
+        boolean sameValue(int sourceIndex, ArrayStride other, int otherSourceIndex) {
+            return source[sourceIndex] == ((LongStride) other).source[otherSourceIndex];
+        }
+
+        @Override
+        int hashValue(int sourceIndex) {
+            return Long.hashCode(source[sourceIndex]);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(toArray());
+        }
+    }
+
+    /**
+     * Number of indices start, start + step, ... below length
+     */
+    private static int strideSize(int length, int start, int step) {
+        return start >= length ? 0 : (length - start - 1) / step + 1;
+    }
+
+    /**
+     * The outer skips list: its nth element is the stride of step n, created on access.
+     * Its size is read from the source on every call, like the size of each stride.
+     */
+    private static final class StrideList<S> extends AbstractList<S> implements RandomAccess {
+        private final IntSupplier size;
+        private final IntFunction<S> strideOfStep;
+
+        StrideList(IntSupplier size, IntFunction<S> strideOfStep) {
+            this.size = size;
+            this.strideOfStep = strideOfStep;
+        }
+
+        @Override
+        public S get(int index) {
+            return strideOfStep.apply(Objects.checkIndex(index, size()) + 1);
+        }
+
+        @Override
+        public int size() {
+            return size.getAsInt();
+        }
+    }
+
+    /**
+     * Read-only view of every step-th element of a random-access list from start
+     */
+    private static final class Strided<T> extends AbstractList<T> implements RandomAccess {
+        private final List<T> source;
+        private final int start;
+        private final int step;
+
+        Strided(List<T> source, int start, int step) {
+            this.source = source;
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public T get(int index) {
+            return source.get(start + Objects.checkIndex(index, size()) * step);
+        }
+
+        @Override
+        public int size() {
+            return strideSize(source.size(), start, step);
+        }
     }
 }
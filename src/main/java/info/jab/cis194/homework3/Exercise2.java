@@ -1,7 +1,19 @@
 package info.jab.cis194.homework3;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Exercise 2: Local Maxima Function
@@ -16,6 +28,11 @@ import java.util.stream.IntStream;
  */
 public class Exercise2 {
 
+    /**
+     * Smallest chunk of an array worth a parallel task of its own
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 14;
+
     /**
      * Finds all local maxima in the input list.
      * A local maximum is an element that is strictly greater than both its neighbors.
@@ -55,4 +72,316 @@ public class Exercise2 {
 
         return current.compareTo(previous) > 0 && current.compareTo(next) > 0;
     }
+
+    /**
+     * Finds all local maxima of an int array in one pass, without boxing.
+     *
+     * @param input the input array
+     * @return the local maxima in input order
+     * @throws IllegalArgumentException if input is null
+     */
+    public static int[] localMaxima(int[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return maximaOf(input, 1, input.length - 1);
+    }
+
+    /**
+     * Finds all local maxima of a double array in one pass, without boxing.
+     * Values are ordered by Double.compare, like the boxed List version.
+     *
+     * @param input the input array
+     * @return the local maxima in input order
+     * @throws IllegalArgumentException if input is null
+     */
+    public static double[] localMaxima(double[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return maximaOf(input, 1, input.length - 1);
+    }
+
+    /**
+     * Lazily finds the local maxima of a stream in a single pass with a 3-element window,
+     * so unbounded or very large series never need to be held in memory.
+     *
+     * @param <T> the type of elements in the stream, must be Comparable
+     * @param input the input stream, consumed as the result is
+     * @return ordered stream of the local maxima
+     * @throws IllegalArgumentException if input is null
+     */
+    public static <T extends Comparable<T>> Stream<T> localMaxima(Stream<T> input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        return StreamSupport.stream(new MaximaSpliterator<>(input.spliterator()), false).onClose(input::close);
+    }
+
+    /**
+     * Lazily finds the local maxima of an IntStream in a single pass, without boxing.
+     *
+     * @see #localMaxima(Stream)
+     */
+    public static IntStream localMaxima(IntStream input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        return StreamSupport.intStream(new IntMaximaSpliterator(input.spliterator()), false).onClose(input::close);
+    }
+
+    /**
+     * Lazily finds the local maxima of a DoubleStream in a single pass, without boxing.
+     * Values are ordered by Double.compare.
+     *
+     * @see #localMaxima(Stream)
+     */
+    public static DoubleStream localMaxima(DoubleStream input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        return StreamSupport.doubleStream(new DoubleMaximaSpliterator(input.spliterator()), false).onClose(input::close);
+    }
+
+    /**
+     * Finds the local maxima of an int array in parallel on the common ForkJoinPool.
+     *
+     * @see #localMaximaParallel(int[], ForkJoinPool, int)
+     */
+    public static int[] localMaximaParallel(int[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return localMaximaParallel(input, pool, defaultChunkSize(input.length, pool));
+    }
+
+    /**
+     * Finds the local maxima of an int array with a fork/join split into chunks.
+     *
+     * Each chunk tests the centres i in its own range but reads input[i - 1] and input[i + 1]
+     * from the whole array, so a maximum sitting on a chunk boundary is compared with its
+     * real neighbours and found exactly once. Chunk results are concatenated in order.
+     *
+     * @param input the input array
+     * @param pool the pool the chunk tasks run on
+     * @param chunkSize number of centres tested by one task
+     * @return the same maxima as localMaxima(input)
+     */
+    public static int[] localMaximaParallel(int[] input, ForkJoinPool pool, int chunkSize) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return pool.invoke(new MaximaTask<>(input.length, chunkSize, (from, to) -> maximaOf(input, from, to), Exercise2::concat));
+    }
+
+    /**
+     * Finds the local maxima of a double array in parallel on the common ForkJoinPool.
+     *
+     * @see #localMaximaParallel(double[], ForkJoinPool, int)
+     */
+    public static double[] localMaximaParallel(double[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return localMaximaParallel(input, pool, defaultChunkSize(input.length, pool));
+    }
+
+    /**
+     * Finds the local maxima of a double array with a fork/join split into chunks.
+     *
+     * @see #localMaximaParallel(int[], ForkJoinPool, int)
+     */
+    public static double[] localMaximaParallel(double[] input, ForkJoinPool pool, int chunkSize) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return pool.invoke(new MaximaTask<>(input.length, chunkSize, (from, to) -> maximaOf(input, from, to), Exercise2::concat));
+    }
+
+    private static int defaultChunkSize(int length, ForkJoinPool pool) {
+        return Math.max(MIN_CHUNK_SIZE, length / (pool.getParallelism() * 4) + 1);
+    }
+
+    /**
+     * Local maxima among the centres [from, to), which must lie within [1, length - 1)
+     */
+    private static int[] maximaOf(int[] input, int from, int to) {
+        // Strict maxima are never adjacent, so there are at most half as many as centres
+        int[] maxima = new int[Math.max(0, (to - from + 1) / 2)];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int current = input[i];
+            if (current > input[i - 1] && current > input[i + 1]) {
+                maxima[count++] = current;
+            }
+        }
+        return Arrays.copyOf(maxima, count);
+    }
+
+    private static double[] maximaOf(double[] input, int from, int to) {
+        double[] maxima = new double[Math.max(0, (to - from + 1) / 2)];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            double current = input[i];
+            if (Double.compare(current, input[i - 1]) > 0 && Double.compare(current, input[i + 1]) > 0) {
+                maxima[count++] = current;
+            }
+        }
+        return Arrays.copyOf(maxima, count);
+    }
+
+    private static int[] concat(int[] left, int[] right) {
+        int[] joined = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, joined, left.length, right.length);
+        return joined;
+    }
+
+    private static double[] concat(double[] left, double[] right) {
+        double[] joined = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, joined, left.length, right.length);
+        return joined;
+    }
+
+    /**
+     * Maxima found among the centres [from, to) of an array
+     */
+    @FunctionalInterface
+    private interface ChunkMaxima<A> {
+        A find(int from, int to);
+    }
+
+    /**
+     * Fork/join task over the centres [1, length - 1) of an array, splitting it in halves
+     */
+    private static final class MaximaTask<A> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final transient ChunkMaxima<A> chunkMaxima;
+        private final transient BinaryOperator<A> concat;
+
+        MaximaTask(int length, int chunkSize, ChunkMaxima<A> chunkMaxima, BinaryOperator<A> concat) {
+            this(1, Math.max(1, length - 1), chunkSize, chunkMaxima, concat);
+        }
+
+        private MaximaTask(int from, int to, int chunkSize, ChunkMaxima<A> chunkMaxima, BinaryOperator<A> concat) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be positive");
+            }
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.chunkMaxima = chunkMaxima;
+            this.concat = concat;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkSize) {
+                return chunkMaxima.find(from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            MaximaTask<A> left = new MaximaTask<>(from, middle, chunkSize, chunkMaxima, concat);
+            MaximaTask<A> right = new MaximaTask<>(middle, to, chunkSize, chunkMaxima, concat);
+            left.fork();
+            A rightResult = right.compute();
+            return concat.apply(left.join(), rightResult);
+        }
+    }
+
+    /**
+     * Sliding 3-element window over a source spliterator, emitting each strict local maximum
+     */
+    private static final class MaximaSpliterator<T extends Comparable<T>> extends Spliterators.AbstractSpliterator<T> {
+        private final Spliterator<T> source;
+        private T previous;
+        private T current;
+        private T next;
+        private int seen;
+
+        MaximaSpliterator(Spliterator<T> source) {
+            super(Long.MAX_VALUE, ORDERED);
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (source.tryAdvance(value -> next = value)) {
+                boolean maximum = seen >= 2 && current.compareTo(previous) > 0 && current.compareTo(next) > 0;
+                T candidate = current;
+                previous = current;
+                current = next;
+                seen = Math.min(seen + 1, 2);
+                if (maximum) {
+                    action.accept(candidate);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class IntMaximaSpliterator extends Spliterators.AbstractIntSpliterator {
+        private final Spliterator.OfInt source;
+        private int previous;
+        private int current;
+        private int next;
+        private int seen;
+
+        IntMaximaSpliterator(Spliterator.OfInt source) {
+            super(Long.MAX_VALUE, ORDERED);
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (source.tryAdvance((int value) -> next = value)) {
+                boolean maximum = seen >= 2 && current > previous && current > next;
+                int candidate = current;
+                previous = current;
+                current = next;
+                seen = Math.min(seen + 1, 2);
+                if (maximum) {
+                    action.accept(candidate);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class DoubleMaximaSpliterator extends Spliterators.AbstractDoubleSpliterator {
+        private final Spliterator.OfDouble source;
+        private double previous;
+        private double current;
+        private double next;
+        private int seen;
+
+        DoubleMaximaSpliterator(Spliterator.OfDouble source) {
+            super(Long.MAX_VALUE, ORDERED);
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            while (source.tryAdvance((double value) -> next = value)) {
+                boolean maximum = seen >= 2 && Double.compare(current, previous) > 0 && Double.compare(current, next) > 0;
+                double candidate = current;
+                previous = current;
+                current = next;
+                seen = Math.min(seen + 1, 2);
+                if (maximum) {
+                    action.accept(candidate);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package info.jab.cis194.homework3;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.IntStream;
 
 /**
@@ -28,6 +33,11 @@ import java.util.stream.IntStream;
  */
 public class Exercise3 {
 
+    private static final int DIGITS = 10;
+    private static final String FOOTER = "==========\n0123456789\n";
+    // Largest array length the JVM reliably allocates, and so the longest String we build
+    private static final int MAX_STRING_LENGTH = Integer.MAX_VALUE - 8;
+
     /**
      * Creates a vertical histogram showing the frequency of digits 0-9 in the input list.
      * The histogram shows asterisks (*) stacked vertically to represent the count of each digit.
@@ -42,41 +52,373 @@ public class Exercise3 {
             throw new IllegalArgumentException("Input list cannot be null");
         }
 
-        // Count occurrences of each digit 0-9 using functional approach
-        List<Long> counts = IntStream.range(0, 10)
-            .mapToObj(digit -> input.stream()
-                .filter(n -> n != null && n == digit)
-                .count())
-            .toList();
-
-        // Find the maximum count to determine height of histogram
-        long maxCount = counts.stream()
-            .mapToLong(Long::longValue)
-            .max()
-            .orElse(0);
-
-        // Build histogram from top to bottom using functional approach
-        String histogramLines = IntStream.rangeClosed(1, (int) maxCount)
-            .map(row -> (int) maxCount - row + 1) // Reverse to go from top to bottom
-            .mapToObj(row -> buildHistogramLine(counts, row))
-            .reduce("", (acc, line) -> acc.isEmpty() ? line : acc + "\n" + line);
-
-        return histogramLines.isEmpty()
-            ? "==========\n0123456789\n"
-            : histogramLines + "\n==========\n0123456789\n";
+        long[] counts = new long[DIGITS];
+        for (Integer n : input) {
+            if (n != null) {
+                count(counts, n);
+            }
+        }
+        return render(counts);
+    }
+
+    /**
+     * Creates the histogram of an int array, counting in a single unboxed pass.
+     *
+     * @param input the integers to create a histogram for
+     * @return a string representation of the histogram
+     * @throws IllegalArgumentException if input is null
+     */
+    public static String histogram(int[] input) {
+        return render(countDigits(input));
+    }
+
+    /**
+     * Creates the histogram of a stream of integers, see countDigits(IntStream).
+     *
+     * @param input the integers to create a histogram for, sequential or parallel
+     * @return a string representation of the histogram
+     * @throws IllegalArgumentException if input is null
+     */
+    public static String histogram(IntStream input) {
+        return render(countDigits(input));
+    }
+
+    /**
+     * Creates the histogram of an int array, counting chunks in parallel.
+     *
+     * @param input the integers to create a histogram for
+     * @return the same histogram as histogram(input)
+     * @throws IllegalArgumentException if input is null
+     */
+    public static String histogramParallel(int[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        return histogram(Arrays.stream(input).parallel());
+    }
+
+    /**
+     * Counts the digits 0-9 of an int array in one pass; other values are ignored.
+     *
+     * @param input the integers to count
+     * @return ten counts, indexed by digit
+     * @throws IllegalArgumentException if input is null
+     */
+    public static long[] countDigits(int[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+        long[] counts = new long[DIGITS];
+        for (int n : input) {
+            count(counts, n);
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the digits 0-9 of a stream in one pass; other values are ignored.
+     * Every split of a parallel stream counts into its own long[10] and the partial
+     * counts are summed, so no counter is shared between threads.
+     *
+     * @param input the integers to count, sequential or parallel
+     * @return ten counts, indexed by digit
+     * @throws IllegalArgumentException if input is null
+     */
+    public static long[] countDigits(IntStream input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        return input.collect(() -> new long[DIGITS], Exercise3::count, Exercise3::addCounts);
+    }
+
+    /**
+     * Renders digit counts as a histogram string, built in a single pre-sized StringBuilder.
+     *
+     * @param counts ten counts, indexed by digit
+     * @return a string representation of the histogram
+     * @throws IllegalArgumentException if counts does not hold ten non-negative counts,
+     *         or the histogram is too tall for a String
+     */
+    public static String render(long[] counts) {
+        long height = checkCounts(counts);
+        // Compare the height before multiplying, so huge counts cannot overflow the length
+        if (height > (MAX_STRING_LENGTH - FOOTER.length()) / (DIGITS + 1)) {
+            throw new IllegalArgumentException("Histogram of height " + height + " is too tall for a String");
+        }
+        StringBuilder out = new StringBuilder((int) height * (DIGITS + 1) + FOOTER.length());
+        try {
+            render(counts, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders digit counts as a histogram, row by row from the top, into out.
+     * Nothing is buffered, so very tall histograms can be streamed to a Writer.
+     *
+     * @param counts ten counts, indexed by digit
+     * @param out where to append the histogram
+     * @throws IOException if out fails
+     * @throws IllegalArgumentException if counts does not hold ten non-negative counts
+     */
+    public static void render(long[] counts, Appendable out) throws IOException {
+        checkCounts(counts);
+        renderColumns(counts, out);
+    }
+
+    /**
+     * Renders one column of stars per count, then a ruler of '=' and the last digit of each
+     * column index; for ten counts this is exactly the digit histogram format
+     */
+    private static void renderColumns(long[] counts, Appendable out) throws IOException {
+        for (long row = maxCount(counts); row >= 1; row--) {
+            // Trailing spaces are trimmed, so each line stops at its last star
+            int width = counts.length;
+            while (counts[width - 1] < row) {
+                width--;
+            }
+            for (int column = 0; column < width; column++) {
+                out.append(counts[column] >= row ? '*' : ' ');
+            }
+            out.append('\n');
+        }
+        for (int column = 0; column < counts.length; column++) {
+            out.append('=');
+        }
+        out.append('\n');
+        for (int column = 0; column < counts.length; column++) {
+            out.append((char) ('0' + column % 10));
+        }
+        out.append('\n');
+    }
+
+    private static void count(long[] counts, int n) {
+        if (n >= 0 && n < DIGITS) {
+            counts[n]++;
+        }
+    }
+
+    private static void addCounts(long[] counts, long[] other) {
+        for (int digit = 0; digit < DIGITS; digit++) {
+            counts[digit] += other[digit];
+        }
     }
 
     /**
-     * Builds a single line of the histogram for the given row using functional approach.
+     * Validates counts and returns the histogram height
+     */
+    private static long checkCounts(long[] counts) {
+        if (counts == null || counts.length != DIGITS) {
+            throw new IllegalArgumentException("Expected " + DIGITS + " digit counts");
+        }
+        for (long count : counts) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Counts cannot be negative");
+            }
+        }
+        return maxCount(counts);
+    }
+
+    private static long maxCount(long[] counts) {
+        long max = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * Reusable, thread-safe histogram over configurable long buckets.
+     *
+     * Bucket i counts the values in [lowerBound(i), upperBound(i)); values outside every
+     * bucket are only counted by outOfRange(). Each bucket is a LongAdder, whose internally
+     * striped cells let many threads add concurrently without a lock or a shared map entry.
+     * Equal-width layouts find a bucket by division, explicit bounds by binary search.
      *
-     * @param counts the counts for each digit 0-9
-     * @param row the row number (1-indexed from bottom)
-     * @return the histogram line as a string
+     * merge is associative and commutative, so partial histograms built per thread, per
+     * chunk or per machine can be combined in any grouping. Reading counts while other
+     * threads add gives per-bucket values that need not form one consistent snapshot.
      */
-    private static String buildHistogramLine(List<Long> counts, int row) {
-        return counts.stream()
-            .map(count -> count >= row ? "*" : " ")
-            .reduce("", String::concat)
-            .replaceAll("\\s+$", ""); // Trim trailing spaces
+    public static final class Histogram {
+
+        /**
+         * How render lays out the counts
+         */
+        public enum Format {
+            /** Vertical star columns with a ruler, the format of Exercise3.histogram */
+            ASCII,
+            /** One "[lower, upper) count" line per bucket */
+            TABLE
+        }
+
+        private final long[] bounds;
+        private final long width;
+        private final LongAdder[] counters;
+        private final LongAdder outOfRange = new LongAdder();
+
+        private Histogram(long[] bounds, long width) {
+            this.bounds = bounds;
+            this.width = width;
+            this.counters = new LongAdder[bounds.length - 1];
+            for (int bucket = 0; bucket < counters.length; bucket++) {
+                counters[bucket] = new LongAdder();
+            }
+        }
+
+        /**
+         * Ten buckets for the digits 0-9, as counted by Exercise3.histogram
+         */
+        public static Histogram digits() {
+            return linear(0, 1, DIGITS);
+        }
+
+        /**
+         * Equal-width buckets [min + i * width, min + (i + 1) * width) for i in [0, buckets)
+         */
+        public static Histogram linear(long min, long width, int buckets) {
+            if (width < 1 || buckets < 1) {
+                throw new IllegalArgumentException("Bucket width and count must be positive");
+            }
+            long[] bounds = new long[buckets + 1];
+            for (int i = 0; i <= buckets; i++) {
+                bounds[i] = Math.addExact(min, Math.multiplyExact(width, (long) i));
+            }
+            return new Histogram(bounds, width);
+        }
+
+        /**
+         * Buckets [bounds[i], bounds[i + 1]) between strictly increasing bounds
+         */
+        public static Histogram withBounds(long... bounds) {
+            if (bounds == null || bounds.length < 2) {
+                throw new IllegalArgumentException("At least two bounds are required");
+            }
+            for (int i = 1; i < bounds.length; i++) {
+                if (bounds[i] <= bounds[i - 1]) {
+                    throw new IllegalArgumentException("Bounds must be strictly increasing");
+                }
+            }
+            return new Histogram(bounds.clone(), 0);
+        }
+
+        public int buckets() {
+            return counters.length;
+        }
+
+        public long lowerBound(int bucket) {
+            return bounds[Objects.checkIndex(bucket, counters.length)];
+        }
+
+        public long upperBound(int bucket) {
+            return bounds[Objects.checkIndex(bucket, counters.length) + 1];
+        }
+
+        /**
+         * Index of the bucket holding value, or -1 if no bucket does
+         */
+        public int bucketOf(long value) {
+            if (value < bounds[0] || value >= bounds[counters.length]) {
+                return -1;
+            }
+            if (width > 0) {
+                return (int) ((value - bounds[0]) / width);
+            }
+            int found = Arrays.binarySearch(bounds, value);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        /**
+         * Count one occurrence of value; safe to call from any number of threads
+         */
+        public void add(long value) {
+            add(value, 1);
+        }
+
+        /**
+         * Count occurrences of value; safe to call from any number of threads
+         */
+        public void add(long value, long occurrences) {
+            if (occurrences < 0) {
+                throw new IllegalArgumentException("Occurrences cannot be negative");
+            }
+            int bucket = bucketOf(value);
+            (bucket < 0 ? outOfRange : counters[bucket]).add(occurrences);
+        }
+
+        /**
+         * Add every count of other, which must have the same buckets, to this histogram
+         */
+        public Histogram addAll(Histogram other) {
+            if (!Arrays.equals(bounds, other.bounds)) {
+                throw new IllegalArgumentException("Histograms have different buckets");
+            }
+            for (int bucket = 0; bucket < counters.length; bucket++) {
+                counters[bucket].add(other.counters[bucket].sum());
+            }
+            outOfRange.add(other.outOfRange.sum());
+            return this;
+        }
+
+        /**
+         * New histogram holding the counts of both, which must have the same buckets
+         */
+        public Histogram merge(Histogram other) {
+            return new Histogram(bounds, width).addAll(this).addAll(other);
+        }
+
+        public long count(int bucket) {
+            return counters[Objects.checkIndex(bucket, counters.length)].sum();
+        }
+
+        /**
+         * Count of every bucket, in bucket order
+         */
+        public long[] counts() {
+            long[] counts = new long[counters.length];
+            for (int bucket = 0; bucket < counters.length; bucket++) {
+                counts[bucket] = counters[bucket].sum();
+            }
+            return counts;
+        }
+
+        /**
+         * Number of values that fell in no bucket
+         */
+        public long outOfRange() {
+            return outOfRange.sum();
+        }
+
+        /**
+         * Number of values counted in a bucket
+         */
+        public long total() {
+            return Arrays.stream(counters).mapToLong(LongAdder::sum).sum();
+        }
+
+        public String render(Format format) {
+            StringBuilder out = new StringBuilder();
+            try {
+                render(format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toString();
+        }
+
+        public void render(Format format, Appendable out) throws IOException {
+            long[] counts = counts();
+            switch (format) {
+                case ASCII -> renderColumns(counts, out);
+                case TABLE -> {
+                    for (int bucket = 0; bucket < counts.length; bucket++) {
+                        out.append('[').append(Long.toString(bounds[bucket])).append(", ")
+                            .append(Long.toString(bounds[bucket + 1])).append(") ")
+                            .append(Long.toString(counts[bucket])).append('\n');
+                    }
+                }
+            }
+        }
     }
 }
@@ -1,5 +1,8 @@
 package info.jab.cis194.homework4;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -90,7 +93,27 @@ public class Exercise1 {
             throw new IllegalArgumentException("Input list cannot be null");
         }
 
-        return transformWithTrampoline(input, 0, List.of()).evaluate();
+        List<Integer> acc = new ArrayList<>(input.size());
+        return Collections.unmodifiableList(transformWithTrampoline(input.iterator(), acc).evaluate());
+    }
+
+    /**
+     * fun1 specialised for int arrays: one unboxed pass into a result of the same length
+     *
+     * @param input the input integers
+     * @return a new array with transformed elements
+     * @throws IllegalArgumentException if input is null
+     */
+    public static int[] fun1(int[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input array cannot be null");
+        }
+
+        int[] result = new int[input.length];
+        for (int i = 0; i < input.length; i++) {
+            result[i] = transformElement(input[i]);
+        }
+        return result;
     }
 
     /**
@@ -114,42 +137,37 @@ public class Exercise1 {
     }
 
     /**
-     * Stack-safe recursive transformation using trampoline
+     * Stack-safe recursive transformation using trampoline.
+     *
+     * Each step appends to the same accumulator and advances an iterator, so a step is O(1)
+     * for any kind of list and the whole transformation is linear. The accumulator never
+     * escapes fun1 before it is complete, so the mutation is not observable by callers.
      */
-    private static Trampoline<List<Integer>> transformWithTrampoline(List<Integer> input, int index, List<Integer> acc) {
-        if (index >= input.size()) {
+    private static Trampoline<List<Integer>> transformWithTrampoline(Iterator<Integer> input, List<Integer> acc) {
+        if (!input.hasNext()) {
             return Trampoline.complete(acc);
         }
 
-        Integer transformed = transformElement(input.get(index));
-        List<Integer> newAcc = java.util.stream.Stream.concat(
-            acc.stream(),
-            java.util.stream.Stream.of(transformed)
-        ).toList();
-
-        return Trampoline.more(() -> transformWithTrampoline(input, index + 1, newAcc));
+        acc.add(transformElement(input.next()));
+        return Trampoline.more(() -> transformWithTrampoline(input, acc));
     }
 
     /**
-     * Alternative functional approach using fold
+     * Alternative functional approach using fold.
+     * A mutable fold: each stream segment appends to its own list and segments are
+     * concatenated once, so the fold stays linear on sequential and parallel streams.
      */
     public static List<Integer> fun1Fold(List<Integer> input) {
         if (input == null) {
             throw new IllegalArgumentException("Input list cannot be null");
         }
 
-        return input.stream()
-            .reduce(
-                List.<Integer>of(),
-                (acc, element) -> java.util.stream.Stream.concat(
-                    acc.stream(),
-                    java.util.stream.Stream.of(transformElement(element))
-                ).toList(),
-                (list1, list2) -> java.util.stream.Stream.concat(
-                    list1.stream(),
-                    list2.stream()
-                ).toList()
-            );
+        return Collections.unmodifiableList(input.stream()
+            .collect(
+                ArrayList<Integer>::new,
+                (acc, element) -> acc.add(transformElement(element)),
+                ArrayList::addAll
+            ));
     }
 
     /**
@@ -158,6 +176,10 @@ public class Exercise1 {
      * - If odd: multiply by 3 and add 1
      */
     private static Integer transformElement(Integer x) {
+        return transformElement(x.intValue());
+    }
+
+    private static int transformElement(int x) {
         return (x % 2 == 0) ? x - 1 : 3 * x + 1;
     }
 
@@ -1,6 +1,15 @@
 package info.jab.cis194.homework1;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -241,6 +250,134 @@ class Exercise1Test {
         }
     }
 
+    @Nested
+    @DisplayName("Arithmetic and Bulk Validation")
+    class BulkValidationTests {
+
+        @Test
+        @DisplayName("Should agree with the composed reference validation for numbers of every length")
+        void shouldMatchComposedValidationForAllLengths() {
+            // Given
+            Random random = new Random(16);
+            LongStream numbers = LongStream.concat(
+                LongStream.rangeClosed(-20, 1_000),
+                random.longs(20_000).map(n -> n >>> random.nextInt(64)));
+
+            // When & Then
+            numbers.forEach(n -> {
+                boolean expected = exercise.validateComposed(n);
+                assertThat(exercise.validate(n)).as("validate(%d)", n).isEqualTo(expected);
+                assertThat(exercise.validateFunctional(n)).as("validateFunctional(%d)", n).isEqualTo(expected);
+                if (n >= 0) {
+                    assertThat(exercise.validate(Long.toString(n))).as("validate(\"%d\")", n).isEqualTo(expected);
+                }
+            });
+            assertThat(exercise.validate(Long.MAX_VALUE)).isEqualTo(exercise.validateComposed(Long.MAX_VALUE));
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should validate card numbers written with separators")
+        @CsvSource({
+            "'4111 1111 1111 1111', true",
+            "'4012-8888-8888-1881', true",
+            "'4012 8888 8888 1882', false",
+            "'4111 1111 1111 111x', false",
+            "'', false",
+            "' - ', false",
+            "'0', true"
+        })
+        void shouldValidateFormattedCardNumbers(String cardNumber, boolean expected) {
+            // When
+            boolean result = exercise.validate(cardNumber);
+
+            // Then
+            assertThat(result).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Should validate batches index by index")
+        void shouldValidateBatches() {
+            // Given
+            long[] numbers = {4012888888881881L, 4012888888881882L, 4111111111111111L, 1234567890123456L};
+
+            // When
+            boolean[] fromNumbers = exercise.validateAll(numbers);
+            boolean[] fromText = exercise.validateAll("4012888888881881", "4012888888881882", "4111 1111 1111 1111", "1234");
+
+            // Then
+            assertThat(fromNumbers).containsExactly(true, false, true, false);
+            assertThat(fromText).containsExactly(true, false, true, false);
+            assertThat(exercise.validateAll(new long[0])).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming Byte Scan")
+    class StreamingScanTests {
+
+        @Test
+        @DisplayName("Should count valid and invalid card numbers and report invalid offsets")
+        void shouldReportCountsAndOffsets() {
+            // Given
+            String export = "4111 1111 1111 1111,4012888888881882\n\n  4012-8888-8888-1881;card\t1234567890123456\r\n";
+            byte[] bytes = export.getBytes(StandardCharsets.US_ASCII);
+
+            // When
+            Exercise1.LuhnReport report = exercise.scan(bytes);
+
+            // Then
+            assertThat(report.valid()).isEqualTo(2);
+            assertThat(report.invalid()).isEqualTo(3);
+            assertThat(report.total()).isEqualTo(5);
+            assertThat(report.invalidOffsets()).containsExactly(
+                export.indexOf("4012888888881882"), export.indexOf("card"), export.indexOf("1234567890123456"));
+            assertThat(report).isEqualTo(exercise.scan(bytes.clone()))
+                .isNotEqualTo(new Exercise1.LuhnReport(2, 3, new long[] {0, 0, 0}));
+            assertThat(report.toString()).contains("invalidOffsets=[20, ");
+        }
+
+        @Test
+        @DisplayName("Should agree with validate whatever the buffer kind or chunking")
+        void shouldMatchValidateForAnyChunking() throws IOException {
+            // Given
+            Random random = new Random(17);
+            List<String> cards = IntStream.range(0, 5_000)
+                .mapToObj(i -> switch (random.nextInt(4)) {
+                    case 0 -> Long.toString(random.nextLong(1_000_000_000_000_000L, Long.MAX_VALUE));
+                    case 1 -> "4111 1111 1111 111" + random.nextInt(10);
+                    case 2 -> "4012-8888-8888-188" + random.nextInt(10);
+                    default -> Integer.toString(random.nextInt(1_000));
+                })
+                .toList();
+            byte[] bytes = String.join(",\n", cards).getBytes(StandardCharsets.US_ASCII);
+            long expectedValid = cards.stream().filter(exercise::validate).count();
+
+            // When
+            Exercise1.LuhnReport fromArray = exercise.scan(bytes);
+            Exercise1.LuhnReport fromDirect = exercise.scan(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip());
+            List<Long> channelOffsets = new ArrayList<>();
+            Exercise1.LuhnCounts fromChannel = exercise.scan(
+                Channels.newChannel(new ByteArrayInputStream(bytes)), channelOffsets::add);
+            Exercise1.LuhnScanner chunked = new Exercise1.LuhnScanner(offset -> { });
+            for (int from = 0; from < bytes.length; ) {
+                int to = Math.min(bytes.length, from + 1 + random.nextInt(7));
+                chunked.feed(ByteBuffer.wrap(bytes, from, to - from).slice());
+                from = to;
+            }
+            chunked.finish();
+
+            // Then
+            assertThat(fromArray.valid()).isEqualTo(expectedValid);
+            assertThat(fromArray.total()).isEqualTo(cards.size());
+            assertThat(fromDirect.valid()).isEqualTo(expectedValid);
+            assertThat(fromDirect).isEqualTo(fromArray).hasSameHashCodeAs(fromArray).hasToString(fromArray.toString());
+            assertThat(fromChannel).isEqualTo(new Exercise1.LuhnCounts(fromArray.valid(), fromArray.invalid()));
+            assertThat(channelOffsets).containsExactly(LongStream.of(fromArray.invalidOffsets()).boxed().toArray(Long[]::new));
+            assertThat(chunked.valid()).isEqualTo(expectedValid);
+            assertThat(chunked.invalid()).isEqualTo(fromArray.invalid());
+        }
+    }
+
     /**
      * Helper method to parse expected digits from CSV string format
      */
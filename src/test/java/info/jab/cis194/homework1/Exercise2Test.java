@@ -1,7 +1,16 @@
 package info.jab.cis194.homework1;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,8 +19,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test class for Exercise 2 - Tower of Hanoi
@@ -335,4 +346,224 @@ class Exercise2Test {
             });
         }
     }
+
+    @Nested
+    @DisplayName("Lazy Move Generation")
+    class LazyMoveGenerationTests {
+
+        @ParameterizedTest
+        @DisplayName("Should generate the same moves as hanoi, lazily and by index")
+        @ValueSource(ints = {0, 1, 2, 3, 4, 7, 10, 13})
+        void shouldMatchHanoiForEveryIndex(int discs) {
+            // Given
+            List<Exercise2.Move> expected = exercise.hanoi(discs, "a", "b", "c");
+
+            // When
+            List<Exercise2.Move> lazy = exercise.hanoiLazy(discs, "a", "b", "c").toList();
+            List<Exercise2.Move> iterated = new ArrayList<>();
+            exercise.hanoiIterator(discs, "a", "b", "c").forEachRemaining(iterated::add);
+            List<Exercise2.Move> byIndex = LongStream.range(0, expected.size())
+                .mapToObj(k -> exercise.moveAt(discs, "a", "b", "c", k))
+                .toList();
+
+            // Then
+            assertThat(lazy).isEqualTo(expected);
+            assertThat(iterated).isEqualTo(expected);
+            assertThat(byIndex).isEqualTo(expected);
+            assertThat(StreamSupport.stream(exercise.hanoiSpliterator(discs, "a", "b", "c"), true).toList())
+                .isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Should address and split puzzles far too large to materialise")
+        void shouldHandleLargePuzzlesWithoutMaterialising() {
+            // Given
+            Spliterator<Exercise2.Move> moves = exercise.hanoiSpliterator(40, "a", "b", "c");
+
+            // When
+            Spliterator<Exercise2.Move> prefix = moves.trySplit();
+            long lastIndex = exercise.calculateMinMoves(40) - 1;
+
+            // Then
+            assertThat(prefix.estimateSize() + moves.estimateSize()).isEqualTo(exercise.calculateMinMoves(40));
+            assertThat(moves.hasCharacteristics(Spliterator.SIZED | Spliterator.ORDERED)).isTrue();
+            // The middle move carries the largest disc from source to destination
+            assertThat(exercise.moveAt(40, "a", "b", "c", (1L << 39) - 1)).isEqualTo(Exercise2.Move.of("a", "b"));
+            assertThat(exercise.moveAt(63, "a", "b", "c", Long.MAX_VALUE - 1)).isEqualTo(Exercise2.Move.of("a", "b"));
+            // The final move puts the smallest disc on the destination, from the auxiliary peg for even n
+            assertThat(exercise.moveAt(40, "a", "b", "c", lastIndex)).isEqualTo(Exercise2.Move.of("c", "b"));
+            assertThatThrownBy(() -> exercise.moveAt(3, "a", "b", "c", 7)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> exercise.hanoiLazy(64, "a", "b", "c")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Multi-Peg Frame-Stewart Solver")
+    class MultiPegTests {
+
+        @ParameterizedTest
+        @DisplayName("Should match the classic solution with three pegs")
+        @ValueSource(ints = {0, 1, 2, 3, 5, 8})
+        void shouldMatchClassicSolutionWithThreePegs(int discs) {
+            // When
+            List<Exercise2.Move> moves = exercise.hanoi(discs, List.of("a", "b", "c"));
+
+            // Then
+            assertThat(moves).isEqualTo(exercise.hanoi(discs, "a", "b", "c"));
+            assertThat(exercise.calculateMinMoves(discs, 3)).isEqualTo(exercise.calculateMinMoves(discs));
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should compute the Frame-Stewart move counts")
+        @CsvSource({
+            "1, 4, 1", "2, 4, 3", "3, 4, 5", "4, 4, 9", "5, 4, 13", "6, 4, 17", "10, 4, 49", "15, 4, 129",
+            "5, 5, 11", "10, 5, 31", "3, 10, 5", "20, 100, 39"
+        })
+        void shouldComputeFrameStewartMoveCounts(int discs, int pegs, long expected) {
+            // When
+            long minMoves = exercise.calculateMinMoves(discs, pegs);
+
+            // Then
+            assertThat(minMoves).isEqualTo(expected);
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should generate legal solutions of minimal length")
+        @CsvSource({"4, 4", "10, 4", "12, 5", "7, 6", "5, 9"})
+        void shouldGenerateLegalMinimalSolutions(int discs, int pegCount) {
+            // Given
+            List<String> pegs = IntStream.range(0, pegCount).mapToObj(i -> "p" + i).toList();
+            Map<String, Deque<Integer>> towers = new HashMap<>();
+            pegs.forEach(peg -> towers.put(peg, new ArrayDeque<>()));
+            IntStream.iterate(discs, d -> d >= 1, d -> d - 1).forEach(d -> towers.get("p0").push(d));
+
+            // When
+            List<Exercise2.Move> moves = exercise.hanoi(discs, pegs);
+
+            // Then
+            moves.forEach(move -> {
+                Integer disc = towers.get(move.from()).pop();
+                Integer below = towers.get(move.to()).peek();
+                assertThat(below == null || below > disc).as("disc %d moved onto %d", disc, below).isTrue();
+                towers.get(move.to()).push(disc);
+            });
+            assertThat(towers.get("p1")).hasSize(discs);
+            assertThat(moves).hasSize((int) exercise.calculateMinMoves(discs, pegCount));
+        }
+
+        @Test
+        @DisplayName("Should stream hundreds of discs without materialising the solution")
+        void shouldStreamHundredsOfDiscs() {
+            // Given
+            List<String> pegs = List.of("a", "b", "c", "d");
+
+            // When
+            long minMoves = exercise.calculateMinMoves(300, 4);
+            List<Exercise2.Move> firstMoves = exercise.hanoiLazy(300, pegs).limit(3).toList();
+
+            // Then
+            assertThat(minMoves).isBetween(1L << 20, 1L << 40);
+            assertThat(exercise.hanoiLazy(300, pegs).spliterator().getExactSizeIfKnown()).isEqualTo(minMoves);
+            assertThat(firstMoves).hasSize(3);
+            assertThat(exercise.hanoiLazy(100, List.of("a", "b", "c")).limit(1).toList())
+                .containsExactly(Exercise2.Move.of("a", "c"));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid peg configurations and overflowing counts")
+        void shouldRejectInvalidConfigurations() {
+            assertThatThrownBy(() -> exercise.hanoi(3, List.of("a", "b"))).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> exercise.hanoi(3, List.of("a", "b", "a"))).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> exercise.calculateMinMoves(3, 2)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> exercise.calculateMinMoves(64, 3)).isInstanceOf(ArithmeticException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Sequence Replay Validation")
+    class SequenceReplayTests {
+
+        @ParameterizedTest
+        @DisplayName("Should accept generated solutions sequentially and in parallel")
+        @ValueSource(ints = {0, 1, 3, 10, 12, 13, 16})
+        void shouldAcceptGeneratedSolutions(int discs) {
+            // Given
+            List<Exercise2.Move> moves = exercise.hanoiLazy(discs, "a", "b", "c").toList();
+
+            // When
+            boolean sequential = exercise.isSolution(moves, discs, "a", "b", "c");
+            boolean parallel = exercise.isSolutionParallel(moves, discs, "a", "b", "c");
+
+            // Then
+            assertThat(sequential).isTrue();
+            assertThat(parallel).isTrue();
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should reject corrupted solutions sequentially and in parallel")
+        @ValueSource(ints = {0, 4095, 8191, 20000, 65534})
+        void shouldRejectCorruptedSolutions(int index) {
+            // Given
+            List<Exercise2.Move> moves = new ArrayList<>(exercise.hanoi(16, "a", "b", "c"));
+            Exercise2.Move original = moves.get(index);
+            moves.set(index, Exercise2.Move.of(original.to(), original.from()));
+
+            // When
+            boolean sequential = exercise.isSolution(moves, 16, "a", "b", "c");
+            boolean parallel = exercise.isSolutionParallel(moves, 16, "a", "b", "c");
+
+            // Then
+            assertThat(sequential).isFalse();
+            assertThat(parallel).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should accept legal but non-minimal solutions")
+        void shouldAcceptLegalNonMinimalSolutions() {
+            // Given
+            List<Exercise2.Move> moves = Stream.concat(
+                Stream.of(Exercise2.Move.of("a", "c"), Exercise2.Move.of("c", "a")),
+                exercise.hanoi(2, "a", "b", "c").stream()).toList();
+
+            // When & Then
+            assertThat(exercise.isSolution(moves, 2, "a", "b", "c")).isTrue();
+            assertThat(exercise.isSolutionParallel(moves, 2, "a", "b", "c")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should replay streamed multi-peg solutions")
+        void shouldReplayStreamedMultiPegSolutions() {
+            // Given
+            List<String> pegs = List.of("a", "b", "c", "d", "e");
+
+            // When
+            Exercise2.SequenceCheck check = exercise.replay(exercise.hanoiLazy(40, pegs), 40, pegs);
+
+            // Then
+            assertThat(check.valid()).isTrue();
+            assertThat(check.movesReplayed()).isEqualTo(exercise.calculateMinMoves(40, 5));
+        }
+
+        @Test
+        @DisplayName("Should report the first illegal move")
+        void shouldReportFirstIllegalMove() {
+            // Given
+            List<String> pegs = List.of("a", "b", "c");
+
+            // When
+            Exercise2.SequenceCheck onSmaller = exercise.replay(
+                Stream.of(Exercise2.Move.of("a", "b"), Exercise2.Move.of("a", "b")), 2, pegs);
+            Exercise2.SequenceCheck fromEmpty = exercise.replay(Stream.of(Exercise2.Move.of("c", "b")), 1, pegs);
+            Exercise2.SequenceCheck unknownPeg = exercise.replay(Stream.of(Exercise2.Move.of("a", "z")), 1, pegs);
+            Exercise2.SequenceCheck unfinished = exercise.replay(Stream.of(Exercise2.Move.of("a", "c")), 1, pegs);
+
+            // Then
+            assertThat(onSmaller.valid()).isFalse();
+            assertThat(onSmaller.movesReplayed()).isEqualTo(2);
+            assertThat(onSmaller.failure()).contains("smaller disc");
+            assertThat(fromEmpty.failure()).contains("empty peg c");
+            assertThat(unknownPeg.failure()).contains("known pegs");
+            assertThat(unfinished.failure()).contains("destination peg b");
+        }
+    }
 }
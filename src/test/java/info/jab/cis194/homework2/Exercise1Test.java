@@ -1,15 +1,31 @@
 package info.jab.cis194.homework2;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test class for Exercise 1 - Log Message Parsing
@@ -165,6 +181,60 @@ class Exercise1Test {
         }
     }
 
+    @Nested
+    @DisplayName("Single-Pass Tokenizer Tests")
+    class TokenizerTests {
+
+        @ParameterizedTest
+        @DisplayName("Should fall back to Unknown for out-of-range numeric fields")
+        @ValueSource(strings = {
+            "I -5 negative timestamp",
+            "W 2147483648 timestamp overflow",
+            "E 0 10 severity must be positive",
+            "E -3 10 negative severity",
+            "E 50 -1 negative timestamp",
+            "E 5x 10 not a number",
+            "I + sign only",
+            "Info 10 tag is a single character"
+        })
+        void should_returnUnknown_when_numericFieldIsInvalid(String input) {
+            // When
+            LogMessage result = exercise.parseMessage(input);
+
+            // Then
+            assertThat(result).isEqualTo(new LogMessage.Unknown(input));
+        }
+
+        @Test
+        @DisplayName("Should keep the message body verbatim after the header fields")
+        void should_keepMessageBody_when_bodyContainsWhitespace() {
+            // Given
+            String logLine = "  E\t65   8  Bad  pickle\tflange   ";
+
+            // When
+            LogMessage result = exercise.parseMessage(logLine);
+
+            // Then
+            assertThat(result).isEqualTo(
+                new LogMessage.ValidMessage(MessageType.error(65), 8, "Bad  pickle\tflange"));
+        }
+
+        @Test
+        @DisplayName("Should parse any CharSequence the same way as a String")
+        void should_parseCharSequence_when_notAString() {
+            // Given
+            StringBuilder logLine = new StringBuilder("W +42 Flange is due for a check-up");
+
+            // When
+            LogMessage result = exercise.parseMessage(logLine);
+
+            // Then
+            assertThat(result).isEqualTo(exercise.parseMessage(logLine.toString()));
+            assertThat(result).isEqualTo(
+                new LogMessage.ValidMessage(MessageType.WARNING, 42, "Flange is due for a check-up"));
+        }
+    }
+
     @Nested
     @DisplayName("Parse Complete Log File Tests")
     class ParseLogFileTests {
@@ -263,4 +333,294 @@ class Exercise1Test {
             assertThat(errorCount).isEqualTo(SampleLogData.SampleLogStats.ERROR_MESSAGES);
         }
     }
+
+    @Nested
+    @DisplayName("Streaming Parse Tests")
+    class StreamingParseTests {
+
+        @Test
+        @DisplayName("Should stream a log file with the same result as parse")
+        void should_streamMessages_when_logFileProvided(@TempDir Path tempDir) throws IOException {
+            // Given
+            Path logFile = tempDir.resolve("sample.log");
+            Files.writeString(logFile, SampleLogData.getSampleLogContent() + "\n\n   \n");
+
+            // When
+            List<LogMessage> result;
+            try (Stream<LogMessage> messages = exercise.parseLines(logFile)) {
+                result = messages.toList();
+            }
+
+            // Then
+            assertThat(result).isEqualTo(exercise.parse(SampleLogData.getSampleLogContent()));
+        }
+
+        @Test
+        @DisplayName("Should stream messages from an InputStream and a channel")
+        void should_streamMessages_when_inputStreamOrChannelProvided() {
+            // Given
+            byte[] content = "I 1 first\nnot a log line\n\nE 70 2 broken".getBytes(StandardCharsets.UTF_8);
+
+            // When
+            List<LogMessage> fromStream;
+            try (Stream<LogMessage> messages = exercise.parseLines(new ByteArrayInputStream(content))) {
+                fromStream = messages.toList();
+            }
+            List<LogMessage> fromChannel;
+            try (Stream<LogMessage> messages =
+                    exercise.parseLines(Channels.newChannel(new ByteArrayInputStream(content)))) {
+                fromChannel = messages.toList();
+            }
+
+            // Then
+            assertThat(fromStream).containsExactly(
+                new LogMessage.ValidMessage(MessageType.INFO, 1, "first"),
+                new LogMessage.Unknown("not a log line"),
+                new LogMessage.ValidMessage(MessageType.error(70), 2, "broken"));
+            assertThat(fromChannel).isEqualTo(fromStream);
+        }
+
+        @Test
+        @DisplayName("Should reject malformed UTF-8 the same way from a file, an InputStream and a channel")
+        void should_throwMalformedInput_when_anyStreamingSourceIsNotUtf8(@TempDir Path tempDir) throws IOException {
+            // Given
+            byte[] content = "I 1 first\nI 2 caf\u00e9\n".getBytes(StandardCharsets.ISO_8859_1);
+            Path logFile = Files.write(tempDir.resolve("latin1.log"), content);
+            List<Callable<Stream<LogMessage>>> sources = List.of(
+                () -> exercise.parseLines(logFile),
+                () -> exercise.parseLines(new ByteArrayInputStream(content)),
+                () -> exercise.parseLines(Channels.newChannel(new ByteArrayInputStream(content))));
+
+            // When & Then
+            for (Callable<Stream<LogMessage>> source : sources) {
+                assertThatThrownBy(() -> {
+                    try (Stream<LogMessage> messages = source.call()) {
+                        messages.toList();
+                    }
+                })
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasCauseInstanceOf(MalformedInputException.class);
+            }
+        }
+
+        @Test
+        @DisplayName("Should count message types in a single streaming pass")
+        void should_countMessages_when_streamProvided() {
+            // Given
+            byte[] content = SampleLogData.getSampleLogContent().getBytes(StandardCharsets.UTF_8);
+
+            // When
+            Exercise1.MessageCounts counts;
+            try (Stream<LogMessage> messages = exercise.parseLines(new ByteArrayInputStream(content))) {
+                counts = exercise.getMessageCounts(messages);
+            }
+
+            // Then
+            assertThat(counts).isEqualTo(new Exercise1.MessageCounts(
+                SampleLogData.SampleLogStats.INFO_MESSAGES,
+                SampleLogData.SampleLogStats.WARNING_MESSAGES,
+                SampleLogData.SampleLogStats.ERROR_MESSAGES,
+                SampleLogData.SampleLogStats.UNKNOWN_MESSAGES));
+            assertThat(counts.total()).isEqualTo(SampleLogData.SampleLogStats.TOTAL_MESSAGES);
+            assertThat(counts).isEqualTo(exercise.getMessageCounts(SampleLogData.getParsedSampleMessages()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Parallel Chunked Parse Tests")
+    class ParallelParseTests {
+
+        private String generateLog(int lines) {
+            return IntStream.range(0, lines)
+                .mapToObj(i -> switch (i % 5) {
+                    case 0 -> "I " + (i * 7919 % 1000) + " Info line " + i;
+                    case 1 -> "W " + (i * 7919 % 1000) + " Warning line " + i;
+                    case 2 -> "E " + (i % 100 + 1) + " " + (i * 7919 % 1000) + " Error line \u00e9 " + i;
+                    case 3 -> "garbage line " + i;
+                    default -> "";
+                } + (i % 2 == 0 ? "\r\n" : "\n"))
+                .collect(Collectors.joining());
+        }
+
+        @Test
+        @DisplayName("Should match sequential parse when the file is split into many chunks")
+        void should_matchSequentialParse_when_fileSplitIntoChunks(@TempDir Path tempDir) throws IOException {
+            // Given
+            String content = generateLog(5_000);
+            Path logFile = tempDir.resolve("large.log");
+            Files.writeString(logFile, content);
+            List<LogMessage> expected = exercise.parse(content);
+            ForkJoinPool pool = new ForkJoinPool(4);
+
+            // When
+            Exercise1.ParsedLog result;
+            try {
+                result = exercise.parseParallel(logFile, pool, 1_024);
+            } finally {
+                pool.shutdown();
+            }
+
+            // Then
+            assertThat(result.messages()).isEqualTo(expected);
+            assertThat(result.counts()).isEqualTo(exercise.getMessageCounts(expected));
+            assertThat(result.sortedMessages()).isEqualTo(expected.stream()
+                .filter(msg -> msg instanceof LogMessage.ValidMessage)
+                .map(msg -> (LogMessage.ValidMessage) msg)
+                .sorted(Comparator.comparingInt(LogMessage.ValidMessage::timestamp))
+                .toList());
+        }
+
+        @Test
+        @DisplayName("Should parse sample.log on the common pool")
+        void should_parseSampleLog_when_defaultPoolUsed(@TempDir Path tempDir) throws IOException {
+            // Given
+            Path logFile = tempDir.resolve("sample.log");
+            Files.writeString(logFile, SampleLogData.getSampleLogContent());
+
+            // When
+            Exercise1.ParsedLog result = exercise.parseParallel(logFile);
+
+            // Then
+            assertThat(result.messages()).isEqualTo(SampleLogData.getParsedSampleMessages());
+            assertThat(result.counts().total()).isEqualTo(SampleLogData.SampleLogStats.TOTAL_MESSAGES);
+            assertThat(result.sortedMessages().stream().mapToInt(LogMessage.ValidMessage::timestamp)).isSorted();
+        }
+
+        @Test
+        @DisplayName("Should return an empty result for an empty file")
+        void should_returnEmptyResult_when_fileIsEmpty(@TempDir Path tempDir) throws IOException {
+            // Given
+            Path logFile = Files.createFile(tempDir.resolve("empty.log"));
+
+            // When
+            Exercise1.ParsedLog result = exercise.parseParallel(logFile);
+
+            // Then
+            assertThat(result).isEqualTo(Exercise1.ParsedLog.EMPTY);
+        }
+
+        @Test
+        @DisplayName("Should cap huge chunk sizes below the mapping limit")
+        void should_matchSequentialParse_when_chunkBytesExceedsMappingLimit(@TempDir Path tempDir) throws IOException {
+            // Given
+            String content = generateLog(200);
+            Path logFile = Files.writeString(tempDir.resolve("large.log"), content);
+            ForkJoinPool pool = new ForkJoinPool(2);
+
+            // When
+            Exercise1.ParsedLog result;
+            try {
+                result = exercise.parseParallel(logFile, pool, Long.MAX_VALUE, 256);
+            } finally {
+                pool.shutdown();
+            }
+
+            // Then
+            assertThat(result.messages()).isEqualTo(exercise.parse(content));
+        }
+
+        @Test
+        @DisplayName("Should reject a line that does not fit in one mapped chunk")
+        void should_throwIOException_when_lineExceedsMappingLimit(@TempDir Path tempDir) throws IOException {
+            // Given
+            Path logFile = Files.writeString(tempDir.resolve("long.log"), "I 1 short\nI 2 " + "x".repeat(100) + "\nI 3 end\n");
+
+            // When & Then
+            assertThatThrownBy(() -> exercise.parseParallel(logFile, ForkJoinPool.commonPool(), 16, 64))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("too long");
+        }
+
+        @Test
+        @DisplayName("Should fail on malformed UTF-8 like the sequential file parser")
+        void should_throwMalformedInput_when_fileIsNotUtf8(@TempDir Path tempDir) throws IOException {
+            // Given
+            Path logFile = Files.write(tempDir.resolve("latin1.log"), "I 1 caf\u00e9\n".getBytes(StandardCharsets.ISO_8859_1));
+
+            // When & Then
+            assertThatThrownBy(() -> exercise.parseParallel(logFile))
+                .isInstanceOf(MalformedInputException.class);
+            assertThatThrownBy(() -> {
+                try (Stream<LogMessage> lines = exercise.parseLines(logFile)) {
+                    lines.toList();
+                }
+            }).hasRootCauseInstanceOf(MalformedInputException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Message Interning Tests")
+    class MessageInterningTests {
+
+        @Test
+        @DisplayName("Should share Error instances for severities 1 to 100")
+        void should_returnSameInstance_when_severityIsCached() {
+            // When & Then
+            assertThat(MessageType.error(1)).isSameAs(MessageType.error(1));
+            assertThat(MessageType.error(100)).isSameAs(MessageType.error(100));
+            assertThat(MessageType.error(101)).isNotSameAs(MessageType.error(101)).isEqualTo(MessageType.error(101));
+            assertThat(exercise.parseMessage("E 42 10 a")).isInstanceOfSatisfying(LogMessage.ValidMessage.class,
+                msg -> assertThat(msg.messageType()).isSameAs(MessageType.error(42)));
+            assertThatThrownBy(() -> MessageType.error(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should share repeated message bodies and report hits")
+        void should_shareBodies_when_internerConfigured() {
+            // Given
+            Exercise1.MessageInterner interner = new Exercise1.MessageInterner();
+            Exercise1 interning = new Exercise1(interner);
+            String log = IntStream.range(0, 100)
+                .mapToObj(i -> "I " + i + " disk quota exceeded\n")
+                .collect(Collectors.joining());
+
+            // When
+            List<LogMessage> messages = interning.parse(log);
+
+            // Then
+            assertThat(messages).isEqualTo(exercise.parse(log));
+            String first = ((LogMessage.ValidMessage) messages.get(0)).message();
+            assertThat(messages).allSatisfy(msg ->
+                assertThat(((LogMessage.ValidMessage) msg).message()).isSameAs(first));
+            Exercise1.MessageInterner.Stats stats = interner.stats();
+            assertThat(stats.hits()).isEqualTo(99);
+            assertThat(stats.misses()).isEqualTo(1);
+            assertThat(stats.hitRate()).isEqualTo(0.99);
+            assertThat(stats.entries()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should stay within capacity when bodies are all distinct")
+        void should_boundEntries_when_bodiesAreDistinct() {
+            // Given
+            Exercise1.MessageInterner interner = new Exercise1.MessageInterner(10);
+
+            // When
+            IntStream.range(0, 1_000).forEach(i -> interner.intern("body " + i));
+
+            // Then
+            Exercise1.MessageInterner.Stats stats = interner.stats();
+            assertThat(stats.capacity()).isEqualTo(16);
+            assertThat(stats.entries()).isLessThanOrEqualTo(16);
+            assertThat(stats.hits() + stats.misses()).isEqualTo(1_000);
+            assertThat(new Exercise1.MessageInterner().stats().hitRate()).isZero();
+            assertThatThrownBy(() -> new Exercise1.MessageInterner(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should intern a region of a CharSequence without copying on a hit")
+        void should_matchRegion_when_internedFromCharSequence() {
+            // Given
+            Exercise1.MessageInterner interner = new Exercise1.MessageInterner(64);
+            String cached = interner.intern("pickle");
+
+            // When
+            String fromRegion = interner.intern(new StringBuilder("xxpicklexx"), 2, 8);
+            String differentLength = interner.intern("pickles");
+
+            // Then
+            assertThat(fromRegion).isSameAs(cached);
+            assertThat(differentLength).isEqualTo("pickles");
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package info.jab.cis194.homework2;
 
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -278,6 +280,64 @@ class Exercise2Test {
         }
     }
 
+    @Nested
+    @DisplayName("Balanced Insert Tests")
+    class BalancedInsertTests {
+
+        private final Exercise4 traversal = new Exercise4();
+
+        @Test
+        @DisplayName("Should keep logarithmic height when messages arrive sorted")
+        void should_keepLogarithmicHeight_when_messagesArriveSorted() {
+            // Given
+            int count = 100_000;
+            MessageTree tree = MessageTree.leaf();
+
+            // When
+            for (int i = 0; i < count; i++) {
+                tree = exercise.insertBalanced(new LogMessage.ValidMessage(MessageType.INFO, i, "msg" + i), tree);
+            }
+
+            // Then
+            assertThat(tree.size()).isEqualTo(count);
+            assertThat(exercise.getHeight(tree)).isLessThanOrEqualTo(24); // 1.44 * log2(100_000)
+            assertThat(exercise.isBalanced(tree)).isTrue();
+            assertThat(exercise.findByTimestamp(tree, 54_321))
+                .hasValueSatisfying(msg -> assertThat(msg.message()).isEqualTo("msg54321"));
+        }
+
+        @Test
+        @DisplayName("Should produce the same in-order sequence as the unbalanced insert")
+        void should_matchUnbalancedInOrder_when_timestampsRepeat() {
+            // Given
+            Random random = new Random(42);
+            List<LogMessage> messages = IntStream.range(0, 2_000)
+                .mapToObj(i -> i % 10 == 0
+                    ? (LogMessage) new LogMessage.Unknown("noise " + i)
+                    : new LogMessage.ValidMessage(MessageType.error(i % 100 + 1), random.nextInt(300), "msg" + i))
+                .toList();
+
+            // When
+            MessageTree balanced = MessageTree.leaf();
+            MessageTree unbalanced = MessageTree.leaf();
+            for (LogMessage message : messages) {
+                balanced = exercise.insertBalanced(message, balanced);
+                unbalanced = exercise.insert(message, unbalanced);
+            }
+
+            // Then
+            assertThat(exercise.isBalanced(balanced)).isTrue();
+            assertThat(traversal.inOrder(balanced)).isEqualTo(traversal.inOrder(unbalanced));
+        }
+
+        @Test
+        @DisplayName("Should reject null arguments like insert")
+        void should_throwException_when_argumentsAreNull() {
+            assertThatThrownBy(() -> exercise.insertBalanced(null, MessageTree.leaf()))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
     /**
      * Helper method to verify BST ordering property
      */
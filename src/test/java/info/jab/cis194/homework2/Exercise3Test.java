@@ -1,16 +1,26 @@
 package info.jab.cis194.homework2;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test class for Exercise 3 - MessageTree Build Function
@@ -184,6 +194,101 @@ class Exercise3Test {
         }
     }
 
+    @Nested
+    @DisplayName("Bulk Build Tests")
+    class BulkBuildTests {
+
+        private final Exercise2 treeOperations = new Exercise2();
+        private final Exercise4 traversal = new Exercise4();
+
+        private List<LogMessage> randomMessages(int count) {
+            Random random = new Random(7);
+            return IntStream.range(0, count)
+                .mapToObj(i -> i % 9 == 0
+                    ? (LogMessage) new LogMessage.Unknown("noise " + i)
+                    : new LogMessage.ValidMessage(MessageType.INFO, random.nextInt(count / 4 + 1), "msg" + i))
+                .toList();
+        }
+
+        @Test
+        @DisplayName("Should produce the same in-order sequence as the insert-based build")
+        void should_matchInsertBasedBuild_when_timestampsRepeat() {
+            // Given
+            List<LogMessage> messages = randomMessages(5_000);
+
+            // When
+            MessageTree bulk = exercise.buildBulk(messages);
+
+            // Then
+            assertThat(traversal.inOrder(bulk)).isEqualTo(traversal.inOrder(exercise.build(messages)));
+            assertThat(treeOperations.isBalanced(bulk)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should build a tree of minimal height")
+        void should_buildMinimalHeightTree_when_messagesAreSorted() {
+            // Given
+            List<LogMessage> messages = IntStream.range(0, 1_023)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(MessageType.WARNING, i, "msg" + i))
+                .toList();
+
+            // When
+            MessageTree tree = exercise.buildBulk(messages);
+
+            // Then
+            assertThat(tree.size()).isEqualTo(1_023);
+            assertThat(tree.height()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Should build the same tree in parallel as sequentially")
+        void should_matchSequentialBuild_when_builtInParallel() {
+            // Given
+            List<LogMessage> messages = randomMessages(200_000);
+
+            // When
+            MessageTree parallel = exercise.buildBulkParallel(messages);
+
+            // Then
+            assertThat(parallel).isEqualTo(exercise.buildBulk(messages));
+        }
+
+        @Test
+        @DisplayName("Should build from an already sorted list and reject unsorted input")
+        void should_buildFromSortedMessages_when_inputIsSorted() {
+            // Given
+            List<LogMessage.ValidMessage> sorted = List.of(
+                new LogMessage.ValidMessage(MessageType.INFO, 1, "first"),
+                new LogMessage.ValidMessage(MessageType.INFO, 2, "second"),
+                new LogMessage.ValidMessage(MessageType.INFO, 2, "third"));
+
+            // When
+            MessageTree tree = exercise.buildFromSorted(sorted);
+
+            // Then
+            assertThat(traversal.inOrder(tree)).isEqualTo(sorted);
+            assertThatThrownBy(() -> exercise.buildFromSorted(List.of(sorted.get(1), sorted.get(0))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sorted");
+        }
+
+        @Test
+        @DisplayName("Should report statistics for a balanced bulk-built tree")
+        void should_returnBalancedTree_when_buildingWithStatistics() {
+            // Given
+            List<LogMessage> messages = randomMessages(100_000);
+
+            // When
+            Exercise3.BuildResult result = exercise.buildWithStatistics(messages);
+
+            // Then
+            assertThat(result.validMessages()).isEqualTo(exercise.countValidMessages(messages));
+            assertThat(result.unknownMessages()).isEqualTo(result.totalMessages() - result.validMessages());
+            assertThat(result.tree().size()).isEqualTo(result.validMessages());
+            assertThat(treeOperations.isBalanced(result.tree())).isTrue();
+        }
+    }
+
     /**
      * Helper method to verify BST ordering property
      */
@@ -202,4 +307,127 @@ class Exercise3Test {
             }
         };
     }
+
+    @Nested
+    @DisplayName("Snapshot Tests")
+    class SnapshotTests {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("Should restore a built tree from its snapshot in timestamp order")
+        void should_restoreTree_when_snapshotOfBuiltTreeRead() throws IOException {
+            // Given
+            Random random = new Random(3);
+            List<LogMessage> messages = IntStream.range(0, 20_000)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(
+                    MessageType.error(random.nextInt(100) + 1), random.nextInt(5_000), "failure " + (i % 17)))
+                .toList();
+            MessageTree tree = exercise.build(messages);
+            Path snapshot = tempDir.resolve("tree.snapshot");
+
+            // When
+            LogSnapshot.write(snapshot, tree);
+            MessageTree restored = LogSnapshot.readTree(snapshot);
+
+            // Then
+            Exercise4 traversal = new Exercise4();
+            assertThat(traversal.inOrder(restored)).isEqualTo(traversal.inOrder(tree));
+            assertThat(LogSnapshot.readMessages(snapshot)).isEqualTo(traversal.inOrder(tree));
+            assertThat(new Exercise2().isBalanced(restored)).isTrue();
+            assertThat(Files.size(snapshot)).isLessThan(20L * 20_000);
+        }
+
+        @Test
+        @DisplayName("Should round-trip unsorted lists with unknown, large and non-ASCII messages")
+        void should_roundTripEveryMessage_when_listSnapshotted() throws IOException {
+            // Given
+            List<LogMessage> messages = List.of(
+                new LogMessage.ValidMessage(MessageType.INFO, Integer.MAX_VALUE, "max timestamp"),
+                new LogMessage.Unknown("not a log line"),
+                new LogMessage.ValidMessage(MessageType.error(5_000), 0, "severity above one varint byte"),
+                new LogMessage.ValidMessage(MessageType.WARNING, 7, "ünïcödé ✓ body"),
+                new LogMessage.ValidMessage(MessageType.INFO, 3, "x".repeat(200_000)),
+                new LogMessage.ValidMessage(MessageType.INFO, 3, ""),
+                new LogMessage.Unknown(""));
+            Path snapshot = tempDir.resolve("list.snapshot");
+
+            // When
+            LogSnapshot.write(snapshot, messages);
+
+            // Then
+            assertThat(LogSnapshot.readMessages(snapshot)).isEqualTo(messages);
+            Exercise4 traversal = new Exercise4();
+            assertThat(traversal.inOrder(LogSnapshot.readTree(snapshot)))
+                .isEqualTo(traversal.inOrder(exercise.buildBulk(messages)));
+            LogSnapshot.write(snapshot, List.of());
+            assertThat(LogSnapshot.readTree(snapshot).isEmpty()).isTrue();
+        }
+
+        @ParameterizedTest(name = "[{index}] windowBytes = {0}")
+        @DisplayName("Should read records that straddle mapped window boundaries")
+        @ValueSource(ints = {16, 17, 23, 64, 1_000})
+        void should_readSameMessages_when_recordsStraddleWindows(int windowBytes) throws IOException {
+            // Given
+            List<LogMessage> messages = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                messages.add(new LogMessage.ValidMessage(MessageType.error(i * 37 + 1), i * 100_003, "fäilure " + i));
+                messages.add(new LogMessage.Unknown("unparsed ✓ " + "x".repeat(i % 40)));
+            }
+            messages.add(new LogMessage.ValidMessage(MessageType.WARNING, 5, "y".repeat(5_000)));
+            Path snapshot = tempDir.resolve("windowed.snapshot");
+            LogSnapshot.write(snapshot, messages);
+
+            // When
+            List<LogMessage> restored = LogSnapshot.readMessages(snapshot, windowBytes);
+
+            // Then
+            assertThat(restored).isEqualTo(messages);
+        }
+
+        @Test
+        @DisplayName("Should order equal timestamps like build whether or not the list is sorted")
+        void should_matchBuildTieOrder_when_listHasDuplicateTimestamps() throws IOException {
+            // Given
+            List<LogMessage> sortedList = List.of(
+                new LogMessage.ValidMessage(MessageType.INFO, 1, "a"),
+                new LogMessage.ValidMessage(MessageType.INFO, 1, "b"),
+                new LogMessage.ValidMessage(MessageType.WARNING, 2, "c"));
+            List<LogMessage> unsortedList = List.of(sortedList.get(2), sortedList.get(0), sortedList.get(1));
+            Path sortedSnapshot = tempDir.resolve("sorted.snapshot");
+            Path unsortedSnapshot = tempDir.resolve("unsorted.snapshot");
+            Path treeSnapshot = tempDir.resolve("tree.snapshot");
+
+            // When
+            LogSnapshot.write(sortedSnapshot, sortedList);
+            LogSnapshot.write(unsortedSnapshot, unsortedList);
+            LogSnapshot.write(treeSnapshot, exercise.build(sortedList));
+
+            // Then
+            Exercise4 traversal = new Exercise4();
+            assertThat(traversal.inOrder(LogSnapshot.readTree(sortedSnapshot)))
+                .isEqualTo(traversal.inOrder(exercise.build(sortedList)))
+                .extracting(LogMessage.ValidMessage::message).containsExactly("b", "a", "c");
+            assertThat(traversal.inOrder(LogSnapshot.readTree(unsortedSnapshot)))
+                .isEqualTo(traversal.inOrder(exercise.build(unsortedList)));
+            assertThat(traversal.inOrder(LogSnapshot.readTree(treeSnapshot)))
+                .isEqualTo(traversal.inOrder(exercise.build(sortedList)));
+        }
+
+        @Test
+        @DisplayName("Should reject files that are not complete snapshots")
+        void should_throwIOException_when_snapshotIsCorrupt() throws IOException {
+            // Given
+            Path text = Files.writeString(tempDir.resolve("sample.log"), SampleLogData.getSampleLogContent());
+            Path truncated = tempDir.resolve("truncated.snapshot");
+            LogSnapshot.write(truncated, SampleLogData.getParsedSampleMessages());
+            byte[] bytes = Files.readAllBytes(truncated);
+            Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+
+            // When & Then
+            assertThatThrownBy(() -> LogSnapshot.readMessages(text)).isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> LogSnapshot.readMessages(truncated)).isInstanceOf(IOException.class);
+        }
+    }
 }
@@ -1,6 +1,12 @@
 package info.jab.cis194.homework2;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +17,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test class for Exercise 4 - MessageTree InOrder Function
@@ -248,6 +255,222 @@ class Exercise4Test {
         }
     }
 
+    @Nested
+    @DisplayName("Range Query Tests")
+    class RangeQueryTests {
+
+        private final Exercise2 insertOperations = new Exercise2();
+
+        private List<LogMessage> randomMessages() {
+            Random random = new Random(11);
+            return IntStream.range(0, 3_000)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(
+                    MessageType.error(random.nextInt(100) + 1), random.nextInt(1_000), "msg" + i))
+                .toList();
+        }
+
+        static Stream<Arguments> ranges() {
+            return Stream.of(
+                Arguments.of(0, 999),
+                Arguments.of(250, 260),
+                Arguments.of(500, 500),
+                Arguments.of(-50, 10),
+                Arguments.of(990, 5_000),
+                Arguments.of(700, 300)
+            );
+        }
+
+        @ParameterizedTest(name = "[{index}] Range [{0}, {1}]")
+        @DisplayName("Should match a full in-order scan for every way of building the tree")
+        @MethodSource("ranges")
+        void should_matchFullScan_when_queryingRange(int min, int max) {
+            // Given
+            List<LogMessage> messages = randomMessages();
+            MessageTree unbalanced = insertOperations.insertAll(messages, MessageTree.leaf());
+            MessageTree balanced = buildHelper.build(messages);
+            MessageTree bulk = buildHelper.buildBulk(messages);
+            List<LogMessage.ValidMessage> expected = exercise.inOrder(unbalanced).stream()
+                .filter(msg -> msg.timestamp() >= min && msg.timestamp() <= max)
+                .toList();
+
+            // When & Then
+            for (MessageTree tree : List.of(unbalanced, balanced, bulk)) {
+                assertThat(exercise.findMessagesInRange(tree, min, max)).isEqualTo(expected);
+                assertThat(exercise.countMessagesInRange(tree, min, max)).isEqualTo(expected.size());
+            }
+        }
+
+        @Test
+        @DisplayName("Should filter the range by severity")
+        void should_returnSevereErrorsOnly_when_severityFilterApplied() {
+            // Given
+            MessageTree tree = buildHelper.buildBulk(randomMessages());
+
+            // When
+            List<LogMessage.ValidMessage> result = exercise.streamErrorsInRange(tree, 100, 400, 90).toList();
+
+            // Then
+            assertThat(result)
+                .isNotEmpty()
+                .allSatisfy(msg -> {
+                    assertThat(msg.getSeverity()).isGreaterThanOrEqualTo(90);
+                    assertThat(msg.timestamp()).isBetween(100, 400);
+                });
+            assertThat(result.stream().mapToInt(LogMessage.ValidMessage::timestamp)).isSorted();
+        }
+
+        @Test
+        @DisplayName("Should page lazily through a large tree")
+        void should_returnPage_when_skippingAndLimiting() {
+            // Given
+            List<LogMessage> messages = IntStream.range(0, 1_000_000)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(MessageType.INFO, i, "msg" + i))
+                .toList();
+            MessageTree tree = buildHelper.buildBulk(messages);
+
+            // When
+            List<Integer> page = exercise.streamMessagesInRange(tree, 500_000, 600_000)
+                .skip(20)
+                .limit(3)
+                .map(LogMessage.ValidMessage::timestamp)
+                .toList();
+
+            // Then
+            assertThat(page).containsExactly(500_020, 500_021, 500_022);
+            assertThat(exercise.findMessagesInRange(null, 0, 10)).isEmpty();
+        }
+
+        @ParameterizedTest(name = "[{index}] Range [{0}, {1}]")
+        @DisplayName("Should start a page at any offset like skip does, for every way of building the tree")
+        @MethodSource("ranges")
+        void should_matchSkip_when_pagingByOffset(int min, int max) {
+            // Given
+            List<LogMessage> messages = randomMessages();
+            MessageTree unbalanced = insertOperations.insertAll(messages, MessageTree.leaf());
+            MessageTree bulk = buildHelper.buildBulk(messages);
+            List<LogMessage.ValidMessage> inRange = exercise.findMessagesInRange(bulk, min, max);
+
+            // When & Then
+            for (MessageTree tree : List.of(unbalanced, bulk)) {
+                for (long offset : new long[] {0, 1, 7, inRange.size() - 1L, inRange.size(), Long.MAX_VALUE}) {
+                    List<LogMessage.ValidMessage> expected = inRange.stream().skip(Math.max(0, offset)).limit(5).toList();
+                    assertThat(exercise.streamMessagesInRange(tree, min, max, Math.max(0, offset)).limit(5).toList())
+                        .isEqualTo(expected);
+                }
+                assertThat(exercise.rangeSpliterator(tree, min, max).getExactSizeIfKnown()).isEqualTo(inRange.size());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reach a deep page and count a large range without walking it")
+        void should_returnDeepPage_when_offsetGiven() {
+            // Given
+            List<LogMessage> messages = IntStream.range(0, 1_000_000)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(MessageType.INFO, i / 2, "msg" + i))
+                .toList();
+            MessageTree tree = buildHelper.buildBulk(messages);
+
+            // When
+            List<Integer> page = exercise.streamMessagesInRange(tree, 100_000, 400_000, 400_001)
+                .limit(3)
+                .map(LogMessage.ValidMessage::timestamp)
+                .toList();
+
+            // Then
+            assertThat(page).containsExactly(300_000, 300_001, 300_001);
+            assertThat(exercise.countMessagesInRange(tree, 100_000, 400_000)).isEqualTo(600_002);
+            assertThat(exercise.countMessagesInRange(tree, Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo(1_000_000);
+            assertThatThrownBy(() -> exercise.streamMessagesInRange(tree, 0, 10, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("In-Order Spliterator Tests")
+    class InOrderSpliteratorTests {
+
+        private List<LogMessage> shuffledMessages(int count) {
+            Random random = new Random(7);
+            return IntStream.range(0, count)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(MessageType.INFO, random.nextInt(count), "msg" + i))
+                .toList();
+        }
+
+        @Test
+        @DisplayName("Should iterate and stream in the same order as the recursive traversal")
+        void should_matchRecursiveTraversal_when_iteratingTree() {
+            // Given
+            List<LogMessage> messages = shuffledMessages(5_000);
+            MessageTree unbalanced = new Exercise2().insertAll(messages, MessageTree.leaf());
+            MessageTree bulk = buildHelper.buildBulk(messages);
+
+            // When & Then
+            for (MessageTree tree : List.of(unbalanced, bulk, MessageTree.leaf())) {
+                List<LogMessage.ValidMessage> expected = exercise.inOrderFunctional(tree);
+                List<LogMessage.ValidMessage> iterated = new ArrayList<>();
+                tree.forEach(iterated::add);
+
+                assertThat(iterated).isEqualTo(expected);
+                assertThat(tree.stream().toList()).isEqualTo(expected);
+                assertThat(exercise.inOrderStream(tree)).isEqualTo(expected);
+                assertThat(tree.spliterator().getExactSizeIfKnown()).isEqualTo(expected.size());
+            }
+        }
+
+        @Test
+        @DisplayName("Should split at subtrees with exact sizes and keep encounter order in parallel")
+        void should_splitWithExactSizes_when_streamingInParallel() {
+            // Given
+            MessageTree tree = buildHelper.buildBulk(shuffledMessages(100_000));
+            Spliterator<LogMessage.ValidMessage> suffix = tree.spliterator();
+
+            // When
+            Spliterator<LogMessage.ValidMessage> prefix = suffix.trySplit();
+
+            // Then
+            assertThat(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED))
+                .isTrue();
+            assertThat(prefix).isNotNull();
+            assertThat(prefix.estimateSize()).isBetween(25_000L, 75_000L);
+            assertThat(prefix.estimateSize() + suffix.estimateSize()).isEqualTo(100_000L);
+            assertThat(tree.parallelStream().toList()).isEqualTo(tree.stream().toList());
+            assertThat(tree.parallelStream().mapToInt(LogMessage.ValidMessage::timestamp)).isSorted();
+        }
+
+        @Test
+        @DisplayName("Should traverse a degenerate tree without recursing")
+        void should_notOverflowStack_when_treeIsDeep() {
+            // Given - a right spine far deeper than the default thread stack allows to recurse
+            MessageTree tree = MessageTree.leaf();
+            for (int i = 200_000; i > 0; i--) {
+                tree = MessageTree.node(MessageTree.leaf(), new LogMessage.ValidMessage(MessageType.INFO, i, "m"), tree);
+            }
+
+            // When
+            long count = tree.stream().count();
+            Iterator<LogMessage.ValidMessage> iterator = tree.iterator();
+            int first = iterator.next().timestamp();
+
+            // Then
+            assertThat(count).isEqualTo(200_000L);
+            assertThat(tree.size()).isEqualTo(200_000);
+            assertThat(first).isEqualTo(1);
+            assertThat(exercise.countMessages(tree)).isEqualTo(200_000);
+            assertThat(exercise.inOrder(tree).get(199_999).timestamp()).isEqualTo(200_000);
+        }
+
+        @Test
+        @DisplayName("Should throw when an exhausted iterator is advanced")
+        void should_throw_when_iteratorExhausted() {
+            // Given
+            Iterator<LogMessage.ValidMessage> iterator = MessageTree.leaf().iterator();
+
+            // When & Then
+            assertThat(iterator.hasNext()).isFalse();
+            assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Integration with Build Function")
     class IntegrationTests {
@@ -1,11 +1,28 @@
 package info.jab.cis194.homework2;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -404,4 +421,487 @@ class Exercise5Test {
             assertThat(highSeverityErrors).isEqualTo(SampleLogData.getExpectedHighSeverityErrors());
         }
     }
+
+    @Nested
+    @DisplayName("Streaming Tests")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should find high-severity errors over a stream of messages")
+        void should_returnHighSeverityErrors_when_streamProvided() {
+            // Given
+            Stream<LogMessage> messages = SampleLogData.getParsedSampleMessages().stream();
+
+            // When
+            List<String> result = exercise.whatWentWrongStreaming(messages);
+
+            // Then
+            assertThat(result).isEqualTo(SampleLogData.getExpectedHighSeverityErrors());
+        }
+
+        @Test
+        @DisplayName("Should build the same error summary from a stream as from a list")
+        void should_buildErrorSummary_when_streamProvided() {
+            // Given
+            List<LogMessage> parsedMessages = SampleLogData.getParsedSampleMessages();
+
+            // When
+            Exercise5.ErrorSummary summary = exercise.getErrorSummary(parsedMessages.stream());
+
+            // Then
+            assertThat(summary).isEqualTo(exercise.getErrorSummary(parsedMessages));
+        }
+
+        @Test
+        @DisplayName("Should reject a null stream")
+        void should_throwException_when_streamIsNull() {
+            assertThatThrownBy(() -> exercise.whatWentWrongStreaming(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot be null");
+        }
+    }
+
+    @Nested
+    @DisplayName("Columnar Store Tests")
+    class ColumnarStoreTests {
+
+        @Test
+        @DisplayName("Should round-trip messages through the columnar store")
+        void should_materialiseSameMessages_when_storedInColumns() {
+            // Given
+            List<LogMessage> messages = List.of(
+                new LogMessage.ValidMessage(MessageType.INFO, 1, "caf\u00e9 opened"),
+                new LogMessage.Unknown("garbled line"),
+                new LogMessage.ValidMessage(MessageType.error(75), 0, ""),
+                new LogMessage.ValidMessage(MessageType.WARNING, 3, "low disk"));
+
+            // When
+            LogMessageStore store = LogMessageStore.of(messages);
+
+            // Then
+            assertThat(store.asList()).isEqualTo(messages);
+            assertThat(store.timestamp(1)).isEqualTo(-1);
+            assertThat(store.severity(2)).isEqualTo(75);
+            assertThat(store.counts()).isEqualTo(new Exercise1.MessageCounts(1, 1, 1, 1));
+        }
+
+        @Test
+        @DisplayName("Should run existing algorithms over the store view")
+        void should_supportExistingAlgorithms_when_usingListView() {
+            // Given
+            LogMessageStore store = LogMessageStore.from(SampleLogData.getParsedSampleMessages().stream());
+
+            // When
+            List<String> viaView = exercise.whatWentWrong(store.asList());
+            List<String> viaColumns = exercise.whatWentWrongColumnar(store);
+            MessageTree tree = new Exercise3().build(store.asList());
+
+            // Then
+            assertThat(viaView).isEqualTo(SampleLogData.getExpectedHighSeverityErrors());
+            assertThat(viaColumns).isEqualTo(SampleLogData.getExpectedHighSeverityErrors());
+            assertThat(tree.size()).isEqualTo(SampleLogData.SampleLogStats.TOTAL_MESSAGES);
+        }
+
+        @Test
+        @DisplayName("Should keep messages intact across text page boundaries")
+        void should_materialiseSameMessages_when_textSpansPages() {
+            // Given
+            Random random = new Random(5);
+            List<LogMessage> messages = IntStream.range(0, 300)
+                .mapToObj(i -> (LogMessage) new LogMessage.ValidMessage(MessageType.INFO, i,
+                    "\u00e9\u20ac".repeat(random.nextInt(200)) + i))
+                .toList();
+            LogMessageStore.Builder first = new LogMessageStore.Builder(8);
+            LogMessageStore.Builder second = new LogMessageStore.Builder(9);
+            messages.subList(0, 150).forEach(first::add);
+            messages.subList(150, 300).forEach(second::add);
+
+            // When
+            LogMessageStore store = first.addAll(second).build();
+
+            // Then
+            assertThat(store.asList()).isEqualTo(messages);
+            assertThat(store.textBytes()).isEqualTo(messages.stream()
+                .mapToLong(message -> ((LogMessage.ValidMessage) message).message().getBytes(StandardCharsets.UTF_8).length)
+                .sum());
+            assertThat(LogMessageStore.empty().textBytes()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should collect a parallel stream in encounter order")
+        void should_keepOrder_when_collectedInParallel() {
+            // Given
+            List<LogMessage> messages = Stream.iterate(0, i -> i + 1)
+                .limit(10_000)
+                .map(i -> (LogMessage) new LogMessage.ValidMessage(MessageType.error(i % 100 + 1), 10_000 - i, "e" + i))
+                .toList();
+
+            // When
+            LogMessageStore store = messages.parallelStream().collect(LogMessageStore.collector());
+
+            // Then
+            assertThat(store.asList()).isEqualTo(messages);
+            assertThat(exercise.whatWentWrongColumnar(store)).isEqualTo(exercise.whatWentWrong(messages));
+        }
+    }
+
+    @Nested
+    @DisplayName("Top-K Alerting Tests")
+    class TopKTests {
+
+        private List<LogMessage> randomLog() {
+            Random random = new Random(3);
+            return IntStream.range(0, 20_000)
+                .mapToObj(i -> (LogMessage) (i % 4 == 0
+                    ? new LogMessage.ValidMessage(MessageType.INFO, random.nextInt(5_000), "info " + i)
+                    : new LogMessage.ValidMessage(MessageType.error(random.nextInt(100) + 1), random.nextInt(5_000), "error " + i)))
+                .toList();
+        }
+
+        @ParameterizedTest(name = "[{index}] limit = {0}")
+        @DisplayName("Should return the first N errors of whatWentWrong")
+        @ValueSource(ints = {0, 1, 10, 1_000, 100_000})
+        void should_matchWhatWentWrongPrefix_when_selectingFirstN(int limit) {
+            // Given
+            List<LogMessage> messages = randomLog();
+            List<String> expected = exercise.whatWentWrong(messages);
+
+            // When
+            List<LogMessage.ValidMessage> fromStream = exercise.firstHighSeverityErrors(messages.stream(), limit);
+            List<LogMessage.ValidMessage> fromTree =
+                exercise.firstHighSeverityErrors(new Exercise3().buildBulk(messages), limit);
+
+            // Then
+            assertThat(fromStream).extracting(LogMessage.ValidMessage::message)
+                .isEqualTo(expected.subList(0, Math.min(limit, expected.size())));
+            assertThat(fromTree).extracting(LogMessage.ValidMessage::timestamp)
+                .isEqualTo(fromStream.stream().map(LogMessage.ValidMessage::timestamp).toList());
+        }
+
+        @Test
+        @DisplayName("Should return the worst N errors by severity")
+        void should_returnMostSevereErrors_when_selectingWorstN() {
+            // Given
+            List<LogMessage> messages = randomLog();
+
+            // When
+            List<LogMessage.ValidMessage> result = exercise.worstHighSeverityErrors(messages.stream(), 25);
+
+            // Then
+            assertThat(result).isEqualTo(exercise.getHighSeverityErrors(messages).stream()
+                .sorted(Comparator.comparingInt(LogMessage.ValidMessage::getSeverity).reversed())
+                .limit(25)
+                .toList());
+        }
+
+        @Test
+        @DisplayName("Should retain only the matches when the limit is huge")
+        void should_growWithMatches_when_limitIsHuge() {
+            // Given
+            List<LogMessage> messages = randomLog();
+            List<String> expected = exercise.whatWentWrong(messages);
+
+            // When
+            List<LogMessage.ValidMessage> first = exercise.firstHighSeverityErrors(messages.stream(), Integer.MAX_VALUE);
+            List<LogMessage.ValidMessage> worst = exercise.worstHighSeverityErrors(
+                Stream.of(new LogMessage.ValidMessage(MessageType.error(70), 1, "only")), Integer.MAX_VALUE);
+
+            // Then
+            assertThat(first).extracting(LogMessage.ValidMessage::message).isEqualTo(expected);
+            assertThat(worst).extracting(LogMessage.ValidMessage::message).containsExactly("only");
+        }
+
+        @Test
+        @DisplayName("Should apply a configurable severity threshold")
+        void should_useConfiguredThreshold_when_constructedWithThreshold() {
+            // Given
+            Exercise5 strict = new Exercise5(90);
+            Exercise5 lenient = new Exercise5(1);
+            List<LogMessage> sampleMessages = SampleLogData.getParsedSampleMessages();
+
+            // When & Then
+            assertThat(strict.getSeverityThreshold()).isEqualTo(90);
+            assertThat(strict.whatWentWrong(sampleMessages)).containsExactly("Flange failed!");
+            assertThat(lenient.whatWentWrong(sampleMessages)).containsExactly(
+                "Too many pickles", "Way too many pickles", "Bad pickle-flange interaction detected", "Flange failed!");
+            assertThat(exercise.getSeverityThreshold()).isEqualTo(50);
+            assertThatThrownBy(() -> new Exercise5(-1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tail-Follow Tests")
+    class FollowTests {
+
+        @TempDir
+        Path tempDir;
+
+        private void append(Path file, String content) throws IOException {
+            Files.writeString(file, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        @Test
+        @DisplayName("Should summarise appended content incrementally, including split lines")
+        void should_matchBatchSummary_when_contentIsAppended() throws IOException {
+            // Given
+            Path logFile = tempDir.resolve("app.log");
+            String content = SampleLogData.getSampleLogContent() + "\nE 60 12 Late failure\nE 80 10 Same timestamp\n";
+            int split = content.indexOf("Way too") + 3;
+
+            try (Exercise5.LogFollower follower = exercise.follow(logFile)) {
+                // When
+                Exercise5.ErrorSummary beforeFileExists = follower.poll();
+                append(logFile, content.substring(0, split));
+                follower.poll();
+                append(logFile, content.substring(split));
+                Exercise5.ErrorSummary summary = follower.poll();
+
+                // Then
+                assertThat(beforeFileExists.totalMessages()).isZero();
+                assertThat(summary).isEqualTo(exercise.getErrorSummary(parseHelper.parse(content)));
+                assertThat(follower.summary()).isEqualTo(summary);
+            }
+        }
+
+        @Test
+        @DisplayName("Should restart from the beginning when the file is truncated")
+        void should_readFromStart_when_fileIsTruncated() throws IOException {
+            // Given
+            Path logFile = tempDir.resolve("app.log");
+            append(logFile, "E 70 3 first failure\nI 4 all good\n");
+
+            try (Exercise5.LogFollower follower = exercise.follow(logFile)) {
+                follower.poll();
+
+                // When
+                Files.writeString(logFile, "E 90 1 after truncate\n");
+                Exercise5.ErrorSummary summary = follower.poll();
+
+                // Then
+                assertThat(summary.totalMessages()).isEqualTo(3);
+                assertThat(summary.highSeverityErrorMessages()).containsExactly("after truncate", "first failure");
+            }
+        }
+
+        @Test
+        @DisplayName("Should drain the old file and follow the new one after rotation")
+        void should_followNewFile_when_logIsRotated() throws IOException {
+            // Given
+            Path logFile = tempDir.resolve("app.log");
+            append(logFile, "E 70 3 before rotation\n");
+
+            try (Exercise5.LogFollower follower = exercise.follow(logFile)) {
+                follower.poll();
+
+                // When
+                append(logFile, "E 75 5 written just before rotation\n");
+                Files.move(logFile, tempDir.resolve("app.log.1"));
+                append(logFile, "E 99 7 after rotation\n");
+                Exercise5.ErrorSummary summary = follower.poll();
+
+                // Then
+                assertThat(summary.highSeverityErrorMessages())
+                    .containsExactly("before rotation", "written just before rotation", "after rotation");
+            }
+        }
+
+        @Test
+        @DisplayName("Should close the opened channel when the file disappears before it can be identified")
+        void should_closeChannel_when_fileVanishesWhileOpening() throws IOException {
+            // Given
+            Path logFile = Files.writeString(tempDir.resolve("app.log"), "I 1 hello\n");
+            List<FileChannel> opened = new ArrayList<>();
+            AtomicInteger stats = new AtomicInteger();
+
+            // When
+            Exercise5.OpenedFile result = Exercise5.openStable(
+                logFile,
+                file -> {
+                    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                    opened.add(channel);
+                    return channel;
+                },
+                file -> {
+                    if (stats.incrementAndGet() > 1) {
+                        throw new NoSuchFileException(file.toString());
+                    }
+                    return "key";
+                });
+
+            // Then
+            assertThat(result).isNull();
+            assertThat(opened).hasSize(1).noneMatch(FileChannel::isOpen);
+        }
+
+        @Test
+        @DisplayName("Should reopen when the file is replaced between identifying and opening it")
+        void should_retryOpen_when_fileKeyChangesWhileOpening() throws IOException {
+            // Given
+            Path logFile = Files.writeString(tempDir.resolve("app.log"), "I 1 hello\n");
+            List<FileChannel> opened = new ArrayList<>();
+            Iterator<Object> keys = List.<Object>of("old", "new", "new", "new").iterator();
+
+            // When
+            Exercise5.OpenedFile result = Exercise5.openStable(
+                logFile,
+                file -> {
+                    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                    opened.add(channel);
+                    return channel;
+                },
+                file -> keys.next());
+
+            // Then
+            try (FileChannel channel = result.channel()) {
+                assertThat(result.fileKey()).isEqualTo("new");
+                assertThat(opened).hasSize(2);
+                assertThat(opened.get(0).isOpen()).isFalse();
+                assertThat(channel).isSameAs(opened.get(1));
+                assertThat(channel.isOpen()).isTrue();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Multi-File Analysis Tests")
+    class MultiFileTests {
+
+        @TempDir
+        Path tempDir;
+
+        private List<Path> writeHostLogs(int hosts) throws IOException {
+            Random random = new Random(23);
+            List<Path> files = new ArrayList<>();
+            for (int host = 0; host < hosts; host++) {
+                StringBuilder log = new StringBuilder();
+                for (int line = 0; line < 500; line++) {
+                    switch (random.nextInt(3)) {
+                        case 0 -> log.append("I ").append(random.nextInt(10_000)).append(" host").append(host).append('\n');
+                        case 1 -> log.append("E ").append(random.nextInt(100) + 1).append(' ')
+                            .append(random.nextInt(10_000)).append(" host").append(host).append(" line").append(line).append('\n');
+                        default -> log.append("garbage line\n");
+                    }
+                }
+                files.add(Files.writeString(tempDir.resolve("host" + host + ".log"), log));
+            }
+            return files;
+        }
+
+        @ParameterizedTest(name = "[{index}] maxConcurrentReads = {0}")
+        @DisplayName("Should merge all files into one report ordered like whatWentWrong on their concatenation")
+        @ValueSource(ints = {1, 4, 64})
+        void should_mergeInTimestampOrder_when_analysingManyFiles(int maxConcurrentReads) throws IOException {
+            // Given
+            List<Path> files = writeHostLogs(40);
+            List<LogMessage> concatenated = new ArrayList<>();
+            for (Path file : files) {
+                concatenated.addAll(parseHelper.parse(Files.readString(file)));
+            }
+
+            // When
+            List<Exercise5.FileError> report = exercise.whatWentWrongInFiles(files, maxConcurrentReads);
+
+            // Then
+            assertThat(report).extracting(error -> error.message().message())
+                .isEqualTo(exercise.whatWentWrong(concatenated));
+            assertThat(report).allSatisfy(error ->
+                assertThat(error.message().message()).startsWith(error.file().getFileName().toString().replace(".log", " ")));
+        }
+
+        @Test
+        @DisplayName("Should report an empty list of files as an empty report")
+        void should_returnEmptyReport_when_noFiles() throws IOException {
+            // When & Then
+            assertThat(exercise.whatWentWrongInFiles(List.of())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should fail with the I/O error of an unreadable file")
+        void should_throwIOException_when_fileIsMissing() throws IOException {
+            // Given
+            List<Path> files = new ArrayList<>(writeHostLogs(3));
+            files.add(1, tempDir.resolve("missing.log"));
+
+            // When & Then
+            assertThatThrownBy(() -> exercise.whatWentWrongInFiles(files))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("missing.log");
+            assertThatThrownBy(() -> exercise.whatWentWrongInFiles(files, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Instrumentation Tests")
+    class InstrumentationTests {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("Should emit JFR events for parse, build and whatWentWrong")
+        void should_recordPipelineEvents_when_recordingEnabled() throws IOException {
+            // Given
+            Path dump = tempDir.resolve("pipeline.jfr");
+            String content = SampleLogData.getSampleLogContent();
+
+            // When
+            List<LogMessage> messages;
+            MessageTree tree;
+            List<String> alerts;
+            try (Recording recording = new Recording()) {
+                recording.enable(LogEvents.Parse.class);
+                recording.enable(LogEvents.Build.class);
+                recording.enable(LogEvents.WhatWentWrong.class);
+                recording.start();
+                messages = parseHelper.parse(content);
+                tree = new Exercise3().build(messages);
+                alerts = exercise.whatWentWrong(messages);
+                recording.stop();
+                recording.dump(dump);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+            // Then
+            Exercise1.MessageCounts counts = parseHelper.getMessageCounts(messages);
+            assertThat(events).filteredOn(e -> e.getEventType().getName().equals("info.jab.cis194.homework2.Parse"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getLong("characters")).isEqualTo(content.length());
+                    assertThat(e.getLong("lines")).isEqualTo(messages.size());
+                    assertThat(e.getLong("info")).isEqualTo(counts.info());
+                    assertThat(e.getLong("warning")).isEqualTo(counts.warning());
+                    assertThat(e.getLong("error")).isEqualTo(counts.error());
+                    assertThat(e.getLong("unknown")).isEqualTo(counts.unknown());
+                    assertThat(e.getLong("allocated")).isNotNegative();
+                    assertThat(e.hasField("allocationBaseline")).isFalse();
+                });
+            assertThat(events).filteredOn(e -> e.getEventType().getName().equals("info.jab.cis194.homework2.Build"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getInt("size")).isEqualTo(tree.size());
+                    assertThat(e.getInt("height")).isEqualTo(tree.height());
+                });
+            assertThat(events).filteredOn(e -> e.getEventType().getName().equals("info.jab.cis194.homework2.WhatWentWrong"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getLong("alerts")).isEqualTo(alerts.size());
+                    assertThat(e.getInt("severityThreshold")).isEqualTo(exercise.getSeverityThreshold());
+                });
+        }
+
+        @Test
+        @DisplayName("Should behave identically when no recording is active")
+        void should_returnSameResults_when_recordingDisabled() {
+            // Given
+            List<LogMessage> messages = SampleLogData.getParsedSampleMessages();
+
+            // When
+            List<String> alerts = exercise.whatWentWrong(messages);
+
+            // Then
+            assertThat(new LogEvents.WhatWentWrong().isEnabled()).isFalse();
+            assertThat(alerts).isEqualTo(exercise.whatWentWrongComposed(messages));
+        }
+    }
 }
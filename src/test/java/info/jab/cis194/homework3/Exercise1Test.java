@@ -1,6 +1,10 @@
 package info.jab.cis194.homework3;
 
+import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -187,4 +191,135 @@ class Exercise1Test {
             assertThat(actualResult.get(3)).isEqualTo(List.of(4, 8));                   // Fourth sublist (skip 3): every 4th element starting from index 3
         }
     }
+
+    @Nested
+    @DisplayName("Lazy Views and Primitive Specialisations")
+    class LazyViewsAndPrimitiveSpecialisations {
+
+        @Test
+        @DisplayName("Views should match eagerly copied skips")
+        void viewsShouldMatchEagerlyCopiedSkips() {
+            for (int n = 0; n <= 40; n++) {
+                // Given
+                List<Integer> input = IntStream.range(0, n).boxed().toList();
+                List<List<Integer>> expected = new ArrayList<>();
+                for (int step = 1; step <= n; step++) {
+                    List<Integer> every = new ArrayList<>();
+                    for (int i = step - 1; i < n; i += step) {
+                        every.add(input.get(i));
+                    }
+                    expected.add(every);
+                }
+
+                // When
+                List<List<Integer>> actualResult = skips(input);
+                List<List<Integer>> fromLinkedList = skips(new LinkedList<>(input));
+
+                // Then
+                assertThat(actualResult).isEqualTo(expected);
+                assertThat(fromLinkedList).isEqualTo(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("Views should be read-only and bounds-checked")
+        void viewsShouldBeReadOnlyAndBoundsChecked() {
+            // Given
+            List<List<String>> actualResult = skips(List.of("A", "B", "C", "D"));
+
+            // When & Then
+            assertThatThrownBy(() -> actualResult.get(1).set(0, "X")).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> actualResult.get(1).get(2)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> actualResult.get(4)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("Int strides should view every nth value in place")
+        void intStridesShouldViewEveryNthValueInPlace() {
+            // Given
+            int[] input = {1, 2, 3, 4, 5, 6, 7, 8};
+
+            // When
+            List<Exercise1.IntStride> actualResult = skips(input);
+
+            // Then
+            assertThat(actualResult).hasSize(8);
+            assertThat(actualResult.get(0).toArray()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+            assertThat(actualResult.get(1).toArray()).containsExactly(2, 4, 6, 8);
+            assertThat(actualResult.get(2).toArray()).containsExactly(3, 6);
+            assertThat(actualResult.get(7).get(0)).isEqualTo(8);
+            assertThat(actualResult.get(3).stream().sum()).isEqualTo(12);
+            assertThat(skips(new int[0])).isEmpty();
+            assertThatThrownBy(() -> actualResult.get(2).get(2)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("Long strides should handle large series without copying")
+        void longStridesShouldHandleLargeSeriesWithoutCopying() {
+            // Given
+            long[] input = LongStream.range(0, 1_000_000).toArray();
+
+            // When
+            List<Exercise1.LongStride> actualResult = skips(input);
+            long totalElements = actualResult.stream().mapToLong(Exercise1.LongStride::size).sum();
+
+            // Then
+            assertThat(actualResult).hasSize(1_000_000);
+            assertThat(actualResult.get(499_999).toArray()).containsExactly(499_999L, 999_999L);
+            assertThat(actualResult.get(0).source()).isSameAs(input);
+            assertThat(totalElements).isEqualTo(IntStream.rangeClosed(1, 1_000_000).mapToLong(step -> 1_000_000 / step).sum());
+        }
+
+        @Test
+        @DisplayName("Strides should compare, hash and print by their values")
+        void stridesShouldCompareHashAndPrintByValues() {
+            // Given
+            List<Exercise1.IntStride> ints = skips(new int[] {5, 1, 5, 1});
+            List<Exercise1.IntStride> sameValues = skips(new int[] {9, 1, 7, 1});
+            List<Exercise1.LongStride> longs = skips(new long[] {5, 1, 5, 1});
+
+            // When & Then
+            assertThat(ints.get(1)).isEqualTo(sameValues.get(1)).hasSameHashCodeAs(sameValues.get(1));
+            assertThat(ints.get(3)).isEqualTo(skips(new int[] {0, 1}).get(1)).isNotEqualTo(ints.get(1));
+            assertThat(ints.get(0)).isNotEqualTo(sameValues.get(0));
+            assertThat(ints.get(0)).hasToString("[5, 1, 5, 1]");
+            assertThat(longs.get(2)).isEqualTo(skips(new long[] {0, 0, 5}).get(2)).isNotEqualTo(ints.get(2));
+            assertThat(longs.get(1)).hasToString("[1, 1]").hasSameHashCodeAs(skips(new long[] {0, 1, 0, 1}).get(1));
+        }
+
+        @Test
+        @DisplayName("Views should follow the size of a growing input")
+        void viewsShouldFollowTheSizeOfAGrowingInput() {
+            // Given
+            List<Integer> input = new ArrayList<>(List.of(1, 2, 3));
+            List<List<Integer>> actualResult = skips(input);
+
+            // When
+            input.add(4);
+
+            // Then
+            assertThat(actualResult).hasSize(4);
+            assertThat(actualResult.get(1)).isEqualTo(List.of(2, 4));
+            assertThat(actualResult.get(3)).isEqualTo(List.of(4));
+        }
+
+        @Test
+        @DisplayName("Should reject null arrays")
+        void shouldRejectNullArrays() {
+            assertThatThrownBy(() -> skips((int[]) null)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> skips((long[]) null)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Strides should reject a negative start or a step below one")
+        void stridesShouldRejectInvalidStartOrStep() {
+            int[] ints = {1, 2, 3};
+            long[] longs = {1, 2, 3};
+
+            assertThatThrownBy(() -> new Exercise1.IntStride(ints, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new Exercise1.IntStride(ints, -1, 1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new Exercise1.LongStride(longs, 0, -2)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(new Exercise1.LongStride(longs, 5, 1).size()).isZero();
+        }
+    }
 }
@@ -1,11 +1,18 @@
 package info.jab.cis194.homework3;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static info.jab.cis194.homework3.Exercise2.localMaxima;
+import static info.jab.cis194.homework3.Exercise2.localMaximaParallel;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -237,4 +244,86 @@ class Exercise2Test {
             // 40 > 10 and 40 > 35: local max
         }
     }
+
+    @Nested
+    @DisplayName("Primitive, Streaming and Parallel Variants")
+    class PrimitiveStreamingAndParallelVariants {
+
+        private final Random random = new Random(42);
+
+        @Test
+        @DisplayName("All variants should agree with the list version")
+        void allVariantsShouldAgreeWithTheListVersion() {
+            for (int n = 0; n <= 60; n++) {
+                // Given
+                int[] values = random.ints(n, 0, 5).toArray();
+                List<Integer> expected = localMaxima(Arrays.stream(values).boxed().toList());
+                int[] expectedValues = expected.stream().mapToInt(Integer::intValue).toArray();
+
+                // When & Then
+                assertThat(localMaxima(values)).containsExactly(expectedValues);
+                assertThat(localMaxima(Arrays.stream(values)).toArray()).containsExactly(expectedValues);
+                assertThat(localMaxima(Arrays.stream(values).boxed()).toList()).isEqualTo(expected);
+                assertThat(localMaxima(Arrays.stream(values).asDoubleStream().toArray()))
+                    .containsExactly(Arrays.stream(expectedValues).asDoubleStream().toArray());
+                for (int chunkSize : new int[] {1, 2, 3, 7}) {
+                    assertThat(localMaximaParallel(values, ForkJoinPool.commonPool(), chunkSize))
+                        .as("chunk size %d", chunkSize)
+                        .containsExactly(expectedValues);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Parallel variant should find maxima on chunk boundaries")
+        void parallelVariantShouldFindMaximaOnChunkBoundaries() {
+            // Given
+            double[] input = IntStream.range(0, 200_000).mapToDouble(i -> Math.sin(i / 3.0)).toArray();
+
+            // When
+            double[] parallel = localMaximaParallel(input);
+            double[] sequential = localMaxima(input);
+
+            // Then
+            assertThat(parallel).containsExactly(sequential);
+            assertThat(localMaximaParallel(input, ForkJoinPool.commonPool(), 10)).containsExactly(sequential);
+        }
+
+        @Test
+        @DisplayName("Streaming variant should work on unbounded series")
+        void streamingVariantShouldWorkOnUnboundedSeries() {
+            // Given
+            IntStream sawtooth = IntStream.iterate(0, i -> i + 1).map(i -> i % 4);
+
+            // When
+            int[] firstPeaks = localMaxima(sawtooth).limit(5).toArray();
+
+            // Then
+            assertThat(firstPeaks).containsExactly(3, 3, 3, 3, 3);
+        }
+
+        @Test
+        @DisplayName("Double variants should order values like Double.compareTo")
+        void doubleVariantsShouldOrderValuesLikeDoubleCompareTo() {
+            // Given
+            double[] input = {0.0, Double.NaN, 1.0, -0.0, 0.0, -0.0};
+
+            // When
+            double[] actual = localMaxima(input);
+
+            // Then
+            assertThat(actual).containsExactly(Double.NaN, 0.0);
+            assertThat(localMaxima(DoubleStream.of(input)).toArray()).containsExactly(Double.NaN, 0.0);
+            assertThat(localMaxima(Arrays.stream(input).boxed().toList())).containsExactly(Double.NaN, 0.0);
+        }
+
+        @Test
+        @DisplayName("Should reject null primitive and streaming input")
+        void shouldRejectNullPrimitiveAndStreamingInput() {
+            assertThatThrownBy(() -> localMaxima((int[]) null)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> localMaxima((double[]) null)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> localMaxima((Stream<Integer>) null)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> localMaximaParallel((int[]) null)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
 }
@@ -1,11 +1,22 @@
 package info.jab.cis194.homework3;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import static info.jab.cis194.homework3.Exercise3.countDigits;
 import static info.jab.cis194.homework3.Exercise3.histogram;
+import static info.jab.cis194.homework3.Exercise3.histogramParallel;
+import static info.jab.cis194.homework3.Exercise3.render;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -256,4 +267,172 @@ class Exercise3Test {
             assertThat(actualResult).contains(" *       *");
         }
     }
+
+    @Nested
+    @DisplayName("Counting Kernel and Rendering")
+    class CountingKernelAndRendering {
+
+        @Test
+        @DisplayName("All inputs should render the same histogram as the list version")
+        void allInputsShouldRenderTheSameHistogramAsTheListVersion() {
+            Random random = new Random(7);
+            for (int n = 0; n <= 200; n += 10) {
+                // Given
+                int[] input = random.ints(n, -3, 13).toArray();
+                String expectedResult = histogram(Arrays.stream(input).boxed().toList());
+
+                // When & Then
+                assertThat(histogram(input)).isEqualTo(expectedResult);
+                assertThat(histogram(Arrays.stream(input))).isEqualTo(expectedResult);
+                assertThat(histogramParallel(input)).isEqualTo(expectedResult);
+            }
+        }
+
+        @Test
+        @DisplayName("Should count digits in one pass over a large parallel stream")
+        void shouldCountDigitsOverALargeParallelStream() {
+            // Given
+            IntStream input = IntStream.range(0, 24_000_000).parallel().map(i -> i % 12);
+
+            // When
+            long[] counts = countDigits(input);
+
+            // Then
+            assertThat(counts).containsOnly(2_000_000L);
+            assertThat(counts).hasSize(10);
+        }
+
+        @Test
+        @DisplayName("Should render counts into an Appendable")
+        void shouldRenderCountsIntoAnAppendable() throws IOException {
+            // Given
+            long[] counts = {0, 1, 0, 0, 3, 1, 2, 0, 0, 1};
+            StringWriter out = new StringWriter();
+
+            // When
+            render(counts, out);
+
+            // Then
+            assertThat(out.toString()).isEqualTo("    *\n    * *\n *  ***  *\n==========\n0123456789\n");
+            assertThat(out.toString()).isEqualTo(render(counts));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid or unrenderable counts")
+        void shouldRejectInvalidOrUnrenderableCounts() {
+            assertThatThrownBy(() -> render(new long[9])).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> render(new long[] {0, 0, -1, 0, 0, 0, 0, 0, 0, 0})).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> render(new long[] {1L << 40, 0, 0, 0, 0, 0, 0, 0, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too tall");
+            assertThatThrownBy(() -> render(new long[] {0, Long.MAX_VALUE, 0, 0, 0, 0, 0, 0, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too tall");
+            assertThatThrownBy(() -> render(new long[] {0, 0, 0, 0, 0, 0, 0, 0, 0, Long.MAX_VALUE / 10}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too tall");
+            assertThatThrownBy(() -> countDigits((int[]) null)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Histogram Accumulator")
+    class HistogramAccumulator {
+
+        @Test
+        @DisplayName("Digit histogram should render the existing ASCII format")
+        void digitHistogramShouldRenderTheExistingAsciiFormat() {
+            // Given
+            List<Integer> input = List.of(1, 4, 5, 4, 6, 6, 3, 4, 2, 4, 9);
+            Exercise3.Histogram histogram = Exercise3.Histogram.digits();
+
+            // When
+            input.forEach(histogram::add);
+
+            // Then
+            assertThat(histogram.render(Exercise3.Histogram.Format.ASCII)).isEqualTo(histogram(input));
+            assertThat(Exercise3.Histogram.digits().render(Exercise3.Histogram.Format.ASCII)).isEqualTo(histogram(List.of()));
+        }
+
+        @Test
+        @DisplayName("Should place values in linear and explicit buckets")
+        void shouldPlaceValuesInLinearAndExplicitBuckets() {
+            // Given
+            Exercise3.Histogram linear = Exercise3.Histogram.linear(-10, 5, 4);
+            Exercise3.Histogram explicit = Exercise3.Histogram.withBounds(0, 10, 100, 1_000);
+
+            // When
+            LongStream.of(-11, -10, -6, -5, 0, 9, 10).forEach(linear::add);
+            LongStream.of(-1, 0, 9, 10, 99, 100, 999, 1_000).forEach(explicit::add);
+            explicit.add(500, 3);
+
+            // Then
+            assertThat(linear.counts()).containsExactly(2, 1, 1, 1);
+            assertThat(linear.outOfRange()).isEqualTo(2);
+            assertThat(linear.upperBound(3)).isEqualTo(10);
+            assertThat(explicit.counts()).containsExactly(2, 2, 5);
+            assertThat(explicit.outOfRange()).isEqualTo(2);
+            assertThat(explicit.total()).isEqualTo(9);
+            assertThat(explicit.render(Exercise3.Histogram.Format.TABLE))
+                .isEqualTo("[0, 10) 2\n[10, 100) 2\n[100, 1000) 5\n");
+        }
+
+        @Test
+        @DisplayName("Should count exactly from many threads at once")
+        void shouldCountExactlyFromManyThreadsAtOnce() {
+            // Given
+            Exercise3.Histogram histogram = Exercise3.Histogram.linear(0, 10, 10);
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int task = 0; task < 64; task++) {
+                    executor.submit(() -> {
+                        for (int i = 0; i < 10_000; i++) {
+                            histogram.add(i % 100);
+                        }
+                    });
+                }
+            }
+
+            // Then
+            assertThat(histogram.counts()).containsOnly(64_000L);
+            assertThat(histogram.total()).isEqualTo(640_000);
+        }
+
+        @Test
+        @DisplayName("Merge should be associative and leave its inputs unchanged")
+        void mergeShouldBeAssociativeAndLeaveItsInputsUnchanged() {
+            // Given
+            Random random = new Random(3);
+            List<Exercise3.Histogram> parts = IntStream.range(0, 3).mapToObj(i -> {
+                Exercise3.Histogram part = Exercise3.Histogram.withBounds(0, 3, 7, 20);
+                random.longs(1_000, -5, 25).forEach(part::add);
+                return part;
+            }).toList();
+
+            // When
+            Exercise3.Histogram leftFirst = parts.get(0).merge(parts.get(1)).merge(parts.get(2));
+            Exercise3.Histogram rightFirst = parts.get(0).merge(parts.get(1).merge(parts.get(2)));
+            Exercise3.Histogram reduced = parts.parallelStream()
+                .reduce(Exercise3.Histogram.withBounds(0, 3, 7, 20), Exercise3.Histogram::merge);
+
+            // Then
+            assertThat(leftFirst.counts()).containsExactly(rightFirst.counts());
+            assertThat(reduced.counts()).containsExactly(leftFirst.counts());
+            assertThat(leftFirst.outOfRange()).isEqualTo(rightFirst.outOfRange());
+            assertThat(leftFirst.total() + leftFirst.outOfRange()).isEqualTo(3_000);
+            assertThat(parts.get(0).total() + parts.get(0).outOfRange()).isEqualTo(1_000);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid bucket layouts and mismatched merges")
+        void shouldRejectInvalidBucketLayoutsAndMismatchedMerges() {
+            assertThatThrownBy(() -> Exercise3.Histogram.linear(0, 0, 10)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Exercise3.Histogram.withBounds(5)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Exercise3.Histogram.withBounds(0, 5, 5)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Exercise3.Histogram.digits().merge(Exercise3.Histogram.linear(0, 1, 9)))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Exercise3.Histogram.digits().add(1, -1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
 }
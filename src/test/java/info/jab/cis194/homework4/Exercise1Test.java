@@ -1,11 +1,17 @@
 package info.jab.cis194.homework4;
 
+import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
 import static info.jab.cis194.homework4.Exercise1.fun1;
+import static info.jab.cis194.homework4.Exercise1.fun1Fold;
 import static info.jab.cis194.homework4.Exercise1.fun2;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -255,4 +261,55 @@ class Exercise1Test {
             }
         }
     }
+
+    @Nested
+    @DisplayName("Linear-Time Implementation Tests")
+    class LinearTimeImplementationTests {
+
+        @Test
+        @DisplayName("All implementations should agree for any kind of list")
+        void allImplementationsShouldAgreeForAnyKindOfList() {
+            // Given
+            int[] values = new Random(11).ints(2_000, -1_000, 1_000).toArray();
+            List<Integer> input = Arrays.stream(values).boxed().toList();
+            List<Integer> expected = fun2(input);
+
+            // When & Then
+            assertThat(fun1(input)).isEqualTo(expected);
+            assertThat(fun1(new LinkedList<>(input))).isEqualTo(expected);
+            assertThat(fun1Fold(input)).isEqualTo(expected);
+            assertThat(fun1(values)).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        @Test
+        @Timeout(10)
+        @DisplayName("Should transform a million elements in linear time without overflowing the stack")
+        void shouldTransformAMillionElementsInLinearTime() {
+            // Given
+            List<Integer> input = IntStream.range(0, 1_000_000).boxed().toList();
+
+            // When
+            List<Integer> result = fun1(input);
+            List<Integer> folded = fun1Fold(input);
+
+            // Then
+            assertThat(result).hasSize(1_000_000);
+            assertThat(result.get(999_999)).isEqualTo(3 * 999_999 + 1);
+            assertThat(folded).isEqualTo(result);
+        }
+
+        @Test
+        @DisplayName("Results should be unmodifiable and arrays should be checked")
+        void resultsShouldBeUnmodifiableAndArraysShouldBeChecked() {
+            // Given
+            List<Integer> input = List.of(1, 2, 3);
+
+            // When & Then
+            assertThatThrownBy(() -> fun1(input).add(4)).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> fun1Fold(input).add(4)).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> fun1((int[]) null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Input array cannot be null");
+        }
+    }
 }